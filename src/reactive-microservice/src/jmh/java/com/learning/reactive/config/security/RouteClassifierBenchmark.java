@@ -0,0 +1,61 @@
+package com.learning.reactive.config.security;
+
+import com.learning.reactive.config.security.RouteClassifier.RouteAccess;
+import com.learning.reactive.constant.AppConstant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former public URL check of the JWT filter (a new {@link AntPathMatcher} per
+ * request, patterns tried in sequence) against {@link RouteClassifier#classify(PathContainer)} on
+ * the path the server has already parsed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteClassifierBenchmark {
+
+    @Param({"/auth/login", "/swagger-ui/swagger-initializer.js", "/users/3f2b9c1e-8a4d-4c36-9a53-0d5d1f7e8b21"})
+    private String path;
+
+    private RouteClassifier routeClassifier;
+    private PathContainer requestPath;
+
+    @Setup
+    public void setUp() {
+        routeClassifier = new RouteClassifier();
+        requestPath = PathContainer.parsePath(path);
+    }
+
+    @Benchmark
+    public boolean antPathMatcherPerRequest() {
+        AntPathMatcher pathMatcher = new AntPathMatcher();
+        for (String pattern : AppConstant.PERMIT_ALL_URLS) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public RouteAccess routeClassifier() {
+        return routeClassifier.classify(requestPath);
+    }
+}
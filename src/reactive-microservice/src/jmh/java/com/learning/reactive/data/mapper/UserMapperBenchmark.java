@@ -0,0 +1,77 @@
+package com.learning.reactive.data.mapper;
+
+import com.learning.reactive.data.dto.UserResponse;
+import com.learning.reactive.data.model.AccountStatusEnum;
+import com.learning.reactive.data.model.Role;
+import com.learning.reactive.data.model.RoleEnum;
+import com.learning.reactive.data.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.mapstruct.factory.Mappers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response mapping used by user lookups and registration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    private UserMapper userMapper;
+    private User user;
+    private List<Role> roles;
+
+    @Setup
+    public void setUp() {
+        userMapper = Mappers.getMapper(UserMapper.class);
+        roles = List.of(role(RoleEnum.ROLE_USER), role(RoleEnum.ROLE_ADMIN));
+
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setFirstName("Ramesh");
+        user.setLastName("Kumar");
+        user.setUsername("Ramesh123");
+        user.setPassword("{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z2P6Yt0lQF6T4o9Pp3m4u7WW");
+        user.setEmail("ramesh@example.com");
+        user.setMobile("9876543210");
+        user.setAccountStatus(AccountStatusEnum.ACTIVE);
+        user.setRoles(roles);
+        user.setVersion(3L);
+        user.setCreatedBy("System");
+        user.setCreatedAt(LocalDateTime.now());
+        user.setUpdatedAt(LocalDateTime.now());
+    }
+
+    @Benchmark
+    public UserResponse toUserResponse() {
+        return userMapper.toUserResponse(user, roles);
+    }
+
+    @Benchmark
+    public List<RoleEnum> mapRoles() {
+        return userMapper.mapRoles(roles);
+    }
+
+    private static Role role(RoleEnum roleEnum) {
+        Role role = new Role();
+        role.setId(UUID.randomUUID());
+        role.setName(roleEnum.getName());
+        return role;
+    }
+}
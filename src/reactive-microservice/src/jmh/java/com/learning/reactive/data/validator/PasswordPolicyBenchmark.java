@@ -0,0 +1,43 @@
+package com.learning.reactive.data.validator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password policy check run on every registration and bulk provisioning record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PasswordPolicyBenchmark {
+
+    private AuthValidator authValidator;
+
+    @Setup
+    public void setUp() {
+        authValidator = new AuthValidator(null);
+    }
+
+    @Benchmark
+    public boolean validPassword() {
+        return authValidator.isValidPassword("Password123");
+    }
+
+    @Benchmark
+    public boolean invalidPassword() {
+        return authValidator.isValidPassword("password-without-digits");
+    }
+}
@@ -0,0 +1,86 @@
+package com.learning.reactive.service;
+
+import com.learning.reactive.data.dto.TokenPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.crypto.SecretKey;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former per-request decoding (three full parses, each with a freshly built parser)
+ * against {@link JwtService#decode(String)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtDecodeBenchmark {
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = TokenBenchmarkFixtures.jwtService(TokenBenchmarkFixtures.tokenProperties());
+
+        token = Jwts.builder()
+                .subject("benchmark-user")
+                .claim("userId", UUID.randomUUID().toString())
+                .claim("username", "benchmark-user")
+                .claim("accountStatus", "ACTIVE")
+                .claim("roles", List.of("ROLE_USER", "ROLE_ADMIN"))
+                .issuedAt(new Date())
+                .expiration(Date.from(Instant.now().plus(1, ChronoUnit.DAYS)))
+                .signWith(legacySigningKey())
+                .compact();
+    }
+
+    @Benchmark
+    public void threeParsesPerRequest(Blackhole blackhole) {
+        // isValidJwt
+        Claims validated = legacyParse(token);
+        blackhole.consume(!validated.getExpiration().before(new Date()));
+        // getRolesFromToken
+        Object roles = legacyParse(token).get("roles");
+        blackhole.consume(((List<?>) roles).stream().map(Object::toString).toList());
+        // getSubjectFromToken
+        blackhole.consume(legacyParse(token).getSubject());
+    }
+
+    @Benchmark
+    public TokenPrincipal singlePassDecode() {
+        return jwtService.decode(token).block();
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parser()
+                .verifyWith(legacySigningKey())
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private static SecretKey legacySigningKey() {
+        return Keys.hmacShaKeyFor(TokenBenchmarkFixtures.SECRET.getBytes());
+    }
+}
@@ -0,0 +1,49 @@
+package com.learning.reactive.service;
+
+import com.learning.reactive.data.dto.TokenPrincipal;
+import com.learning.reactive.data.dto.TokenSubject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access token minting and verification through {@link JwtService} with the default HS256 key.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenBenchmark {
+
+    private JwtService jwtService;
+    private TokenSubject subject;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = TokenBenchmarkFixtures.jwtService(TokenBenchmarkFixtures.tokenProperties());
+        subject = TokenBenchmarkFixtures.subject("benchmark-user");
+        token = jwtService.generateAccessToken(subject);
+    }
+
+    @Benchmark
+    public String mintAccessToken() {
+        return jwtService.generateAccessToken(subject);
+    }
+
+    @Benchmark
+    public TokenPrincipal parseAccessToken() {
+        return jwtService.decode(token).block();
+    }
+}
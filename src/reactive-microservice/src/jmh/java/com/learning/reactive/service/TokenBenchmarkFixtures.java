@@ -0,0 +1,39 @@
+package com.learning.reactive.service;
+
+import com.learning.reactive.data.dto.TokenSubject;
+import com.learning.reactive.data.model.AccountStatusEnum;
+import com.learning.reactive.props.TokenProperties;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Token settings and services shared by the token benchmarks: HS256 with a fixed secret, 15 minute
+ * access tokens and 7 day refresh tokens.
+ */
+final class TokenBenchmarkFixtures {
+
+    static final String SECRET = "dV7m9eFK6x0aJXkM4Nxk7aG5ryncn04y7vSEdHHfDBWuPQM6CnDwpzBZbEBfhb5A";
+
+    private TokenBenchmarkFixtures() {
+    }
+
+    static TokenProperties tokenProperties() {
+        TokenProperties tokenProperties = new TokenProperties();
+        tokenProperties.setSecret(SECRET);
+        tokenProperties.setAccessTokenExpirySeconds(900L);
+        tokenProperties.setRefreshTokenExpirySeconds(604800L);
+        return tokenProperties;
+    }
+
+    /**
+     * A service that can mint and decode access tokens; it has no user lookup or refresh store.
+     */
+    static JwtService jwtService(TokenProperties tokenProperties) {
+        return new JwtService(null, tokenProperties, new JwtKeyRing(tokenProperties), null);
+    }
+
+    static TokenSubject subject(String username) {
+        return new TokenSubject(UUID.randomUUID(), username, AccountStatusEnum.ACTIVE, List.of("ROLE_USER", "ROLE_ADMIN"), 0);
+    }
+}
@@ -0,0 +1,73 @@
+package com.learning.reactive.service;
+
+import com.learning.reactive.data.dto.TokenPrincipal;
+import com.learning.reactive.data.dto.TokenSubject;
+import com.learning.reactive.props.TokenProperties;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access token size and verification cost per claim profile; the {@code tokenBytes} secondary
+ * result is the length of the Authorization header value sent on every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenClaimProfileBenchmark {
+
+    @Param({"STANDARD", "COMPACT"})
+    private TokenProperties.ClaimProfile claimProfile;
+
+    private JwtService jwtService;
+    private TokenSubject subject;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        TokenProperties tokenProperties = TokenBenchmarkFixtures.tokenProperties();
+        tokenProperties.setClaimProfile(claimProfile);
+
+        jwtService = TokenBenchmarkFixtures.jwtService(tokenProperties);
+        subject = TokenBenchmarkFixtures.subject("benchmark-user");
+        token = jwtService.generateAccessToken(subject);
+    }
+
+    @Benchmark
+    public String mintAccessToken() {
+        return jwtService.generateAccessToken(subject);
+    }
+
+    @Benchmark
+    public TokenPrincipal parseAccessToken(TokenSize size) {
+        size.tokenBytes = token.length();
+        return jwtService.decode(token).block();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class TokenSize {
+
+        public long tokenBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            tokenBytes = 0;
+        }
+    }
+}
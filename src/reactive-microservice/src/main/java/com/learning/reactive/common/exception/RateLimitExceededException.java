@@ -0,0 +1,23 @@
+package com.learning.reactive.common.exception;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(long retryAfterNanos) {
+        super("Too many requests");
+        this.retryAfterSeconds = retryAfterSeconds(retryAfterNanos);
+    }
+
+    /**
+     * @return whole seconds for a {@code Retry-After} header, rounded up and at least 1
+     */
+    public static long retryAfterSeconds(long retryAfterNanos) {
+        return Math.max(1, (retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -11,7 +11,9 @@ public enum ExceptionType {
   INVALID_INPUT(HttpStatus.BAD_REQUEST, "Input parameter is not correct"),
   INVALID_FIELD_VALUE(
       HttpStatus.BAD_REQUEST, "Parameter passed for field is not meeting its required format."),
-  PERMISSION_DENIED(HttpStatus.FORBIDDEN, "Forbidden");
+  PERMISSION_DENIED(HttpStatus.FORBIDDEN, "Forbidden"),
+  CONFLICT(HttpStatus.CONFLICT, "Resource was modified by another request, reload and retry."),
+  DUPLICATE_VALUE(HttpStatus.CONFLICT, "Username, email or mobile is already taken.");
 
   private final HttpStatus status;
 
@@ -2,17 +2,23 @@ package com.learning.reactive.common.exception.handler;
 
 import com.learning.reactive.common.api.response.APIResponse;
 import com.learning.reactive.common.exception.BusinessException;
+import com.learning.reactive.common.exception.RateLimitExceededException;
 import com.learning.reactive.common.exception.enums.ExceptionType;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authorization.AuthorizationDeniedException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.util.concurrent.RejectedExecutionException;
+
 @RestControllerAdvice
 @Slf4j
 public class GlobalExceptionHandler {
@@ -33,9 +39,14 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(statusCode).body(result);
     }
 
-    @ExceptionHandler({BadCredentialsException.class, UsernameNotFoundException.class})
+    /**
+     * Locked and disabled accounts get the same body as bad credentials, so the response does not
+     * reveal which usernames exist or are locked out.
+     */
+    @ExceptionHandler({BadCredentialsException.class, UsernameNotFoundException.class,
+            LockedException.class, DisabledException.class})
     protected ResponseEntity<APIResponse<?>> handleAuthenticationException(RuntimeException ex) {
-        log.error("Authentication failed: {}", ex.getMessage(), ex);
+        log.warn("Authentication failed: {}", ex.getMessage());
 
         APIResponse<?> response = APIResponse.failure(
                 HttpStatus.UNAUTHORIZED.name(),
@@ -56,6 +67,32 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
     }
 
+    @ExceptionHandler({RejectedExecutionException.class})
+    protected ResponseEntity<APIResponse<?>> handleRejectedExecutionException(RejectedExecutionException ex) {
+        log.warn("Request rejected, worker pool saturated: {}", ex.getMessage());
+
+        APIResponse<?> response = APIResponse.failure(
+                HttpStatus.SERVICE_UNAVAILABLE.name(),
+                "Server is busy, please retry shortly"
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
+    @ExceptionHandler({RateLimitExceededException.class})
+    protected ResponseEntity<APIResponse<?>> handleRateLimitExceededException(RateLimitExceededException ex) {
+        log.warn("Request rate limited: {}", ex.getMessage());
+
+        APIResponse<?> response = APIResponse.failure(
+                HttpStatus.TOO_MANY_REQUESTS.name(),
+                "Too many requests, please retry later"
+        );
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
+
     @ExceptionHandler({Exception.class})
     protected ResponseEntity<APIResponse<?>> handleException(Exception exception) {
         log.error(exception.getMessage(), exception);
@@ -0,0 +1,64 @@
+package com.learning.reactive.config.metrics;
+
+import com.learning.reactive.props.ObservabilityProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.Repository;
+import org.springframework.util.ClassUtils;
+
+import java.util.Arrays;
+
+/**
+ * Instruments the database layer: connection acquire wait on the pool and per-method timings on
+ * every application repository. Pool gauges ({@code r2dbc.pool.acquired}, {@code .idle},
+ * {@code .pending}, ...) come from Boot's auto-configuration; all meters are served at
+ * {@code /actuator/metrics}.
+ */
+@Configuration
+public class DatabaseMetricsConfig {
+
+    @Bean
+    public static BeanPostProcessor timedConnectionFactoryPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof ConnectionFactory connectionFactory && !(bean instanceof TimedConnectionFactory)) {
+                    return new TimedConnectionFactory(connectionFactory, meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                   ObjectProvider<ObservabilityProperties> observabilityProperties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof Repository<?, ?>)) {
+                    return bean;
+                }
+                Class<?> repositoryInterface = Arrays.stream(ClassUtils.getAllInterfaces(bean))
+                        .filter(Repository.class::isAssignableFrom)
+                        .filter(type -> !type.getName().startsWith("org.springframework."))
+                        .findFirst()
+                        .orElse(null);
+                if (repositoryInterface == null) {
+                    return bean;
+                }
+                ProxyFactory proxyFactory = new ProxyFactory();
+                proxyFactory.setTarget(bean);
+                proxyFactory.setInterfaces(repositoryInterface);
+                proxyFactory.addAdvice(new RepositoryMetricsInterceptor(repositoryInterface.getSimpleName(), meterRegistry::getObject,
+                        observabilityProperties.getObject().getSlowQueryThresholdMillis()));
+                return proxyFactory.getProxy();
+            }
+        };
+    }
+}
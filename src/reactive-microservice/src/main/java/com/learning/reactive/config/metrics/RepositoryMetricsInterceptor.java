@@ -0,0 +1,97 @@
+package com.learning.reactive.config.metrics;
+
+import com.learning.reactive.web.filter.EndpointContextFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Times reactive repository methods from subscription to completion, which is when the SQL
+ * actually runs, and logs calls slower than the threshold with the endpoint that issued them.
+ */
+@Slf4j
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    private final String repositoryName;
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final long slowQueryThresholdNanos;
+    private final Map<Method, MethodTimers> timers = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsInterceptor(String repositoryName, Supplier<MeterRegistry> meterRegistry, long slowQueryThresholdMillis) {
+        this.repositoryName = repositoryName;
+        this.meterRegistry = meterRegistry;
+        this.slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryThresholdMillis);
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        if (result instanceof Mono<?> mono) {
+            MethodTimers methodTimers = timers(invocation.getMethod());
+            return Mono.deferContextual(context -> {
+                long start = System.nanoTime();
+                return mono.doOnSuccess(value -> methodTimers.record(true, start, context))
+                        .doOnError(e -> methodTimers.record(false, start, context));
+            });
+        }
+        if (result instanceof Flux<?> flux) {
+            MethodTimers methodTimers = timers(invocation.getMethod());
+            return Flux.deferContextual(context -> {
+                long start = System.nanoTime();
+                return flux.doOnComplete(() -> methodTimers.record(true, start, context))
+                        .doOnError(e -> methodTimers.record(false, start, context));
+            });
+        }
+        return result;
+    }
+
+    private MethodTimers timers(Method method) {
+        return timers.computeIfAbsent(method, m -> new MethodTimers(
+                m.getName(),
+                timer(m.getName(), "success"),
+                timer(m.getName(), "error")));
+    }
+
+    private Timer timer(String method, String outcome) {
+        return Timer.builder("db.repository")
+                .description("Repository method time from subscription to completion")
+                .tag("repository", repositoryName)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .register(meterRegistry.get());
+    }
+
+    private final class MethodTimers {
+
+        private final String method;
+        private final Timer success;
+        private final Timer error;
+
+        private MethodTimers(String method, Timer success, Timer error) {
+            this.method = method;
+            this.success = success;
+            this.error = error;
+        }
+
+        void record(boolean succeeded, long start, ContextView context) {
+            long elapsed = System.nanoTime() - start;
+            (succeeded ? success : error).record(elapsed, TimeUnit.NANOSECONDS);
+            if (elapsed >= slowQueryThresholdNanos) {
+                log.warn("Slow repository call {}.{} took {} ms for {}", repositoryName, method,
+                        TimeUnit.NANOSECONDS.toMillis(elapsed),
+                        context.getOrDefault(EndpointContextFilter.ENDPOINT_CONTEXT_KEY, "background"));
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.learning.reactive.config.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Wrapped;
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long callers wait for a connection from the pool. Implements {@link Wrapped} so
+ * Boot's pool gauges and {@code ConnectionFactoryUtils} still reach the underlying pool, and
+ * {@link Disposable} so the pool's {@code dispose} destroy method keeps working.
+ */
+public class TimedConnectionFactory implements ConnectionFactory, Wrapped<ConnectionFactory>, Disposable {
+
+    private final ConnectionFactory delegate;
+    private final Timer acquireSuccess;
+    private final Timer acquireError;
+
+    public TimedConnectionFactory(ConnectionFactory delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.acquireSuccess = acquireTimer(meterRegistry, "success");
+        this.acquireError = acquireTimer(meterRegistry, "error");
+    }
+
+    @Override
+    public Publisher<? extends Connection> create() {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return Mono.from(delegate.create())
+                    .doOnSuccess(connection -> acquireSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                    .doOnError(e -> acquireError.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    @Override
+    public ConnectionFactory unwrap() {
+        return delegate;
+    }
+
+    @Override
+    public void dispose() {
+        if (delegate instanceof Disposable disposable) {
+            disposable.dispose();
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return delegate instanceof Disposable disposable && disposable.isDisposed();
+    }
+
+    private static Timer acquireTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("r2dbc.pool.acquire")
+                .description("Time spent waiting for a pooled connection")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,99 @@
+package com.learning.reactive.config.security;
+
+import com.learning.reactive.props.PasswordProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+
+/**
+ * Delegating password encoder whose BCrypt cost is calibrated against the host CPU at startup.
+ * {@link #upgradeEncoding(String)} reports any stored hash with a different algorithm or cost,
+ * so the authentication manager rehashes it on the next successful login.
+ */
+@Slf4j
+public class CalibratedPasswordEncoder implements PasswordEncoder {
+
+    private static final String BCRYPT_ID = "bcrypt";
+    private static final String BCRYPT_PREFIX = "{" + BCRYPT_ID + "}";
+    private static final int CALIBRATION_RUNS = 3;
+
+    private final DelegatingPasswordEncoder delegate;
+    private final int strength;
+
+    private CalibratedPasswordEncoder(int strength) {
+        this.strength = strength;
+        this.delegate = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, new BCryptPasswordEncoder(strength)));
+        // hashes stored before the delegating format carry no {id} prefix
+        this.delegate.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+    }
+
+    public static CalibratedPasswordEncoder create(PasswordProperties passwordProperties) {
+        int strength = passwordProperties.getHashingTargetMillis() > 0
+                ? calibrate(passwordProperties.getHashingTargetMillis(),
+                passwordProperties.getBcryptStrength(), passwordProperties.getMaxBcryptStrength())
+                : passwordProperties.getBcryptStrength();
+        return new CalibratedPasswordEncoder(strength);
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || !encodedPassword.startsWith(BCRYPT_PREFIX)) {
+            return true;
+        }
+        return bcryptCost(encodedPassword.substring(BCRYPT_PREFIX.length())) != strength;
+    }
+
+    private static int bcryptCost(String bcryptHash) {
+        // $2a$10$<salt+hash>
+        try {
+            return Integer.parseInt(bcryptHash.substring(4, 6));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Picks the highest BCrypt cost whose encode time stays within the target on this host.
+     */
+    static int calibrate(long targetMillis, int minStrength, int maxStrength) {
+        int chosen = minStrength;
+        new BCryptPasswordEncoder(minStrength).encode("calibration-warm-up");
+        for (int candidate = minStrength; candidate <= maxStrength; candidate++) {
+            long elapsedMillis = measure(candidate);
+            if (elapsedMillis > targetMillis) {
+                break;
+            }
+            chosen = candidate;
+        }
+        log.info("Calibrated BCrypt cost {} for a {} ms hashing target", chosen, targetMillis);
+        return chosen;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < CALIBRATION_RUNS; run++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration-" + run);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1_000_000;
+    }
+}
@@ -0,0 +1,84 @@
+package com.learning.reactive.config.security;
+
+import com.learning.reactive.data.model.RoleEnum;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Role sets as bitmasks over {@link RoleEnum}. With four roles there are sixteen combinations,
+ * so the authority list and role names of each are built once and shared; turning a token's
+ * mask into authorities is an array lookup and role checks are bit tests.
+ */
+public final class RoleAuthorities {
+
+    private static final RoleEnum[] ROLES = RoleEnum.values();
+    private static final int ALL = (1 << ROLES.length) - 1;
+    private static final Map<String, RoleEnum> BY_NAME = new HashMap<>();
+    private static final List<GrantedAuthority>[] AUTHORITIES;
+    private static final List<String>[] NAMES;
+
+    static {
+        for (RoleEnum role : ROLES) {
+            BY_NAME.put(role.getName(), role);
+        }
+        @SuppressWarnings("unchecked")
+        List<GrantedAuthority>[] authorities = new List[ALL + 1];
+        @SuppressWarnings("unchecked")
+        List<String>[] names = new List[ALL + 1];
+        for (int mask = 0; mask <= ALL; mask++) {
+            List<GrantedAuthority> maskAuthorities = new ArrayList<>();
+            List<String> maskNames = new ArrayList<>();
+            for (RoleEnum role : ROLES) {
+                if ((mask & role.bit()) != 0) {
+                    maskAuthorities.add(new SimpleGrantedAuthority(role.getName()));
+                    maskNames.add(role.getName());
+                }
+            }
+            authorities[mask] = List.copyOf(maskAuthorities);
+            names[mask] = List.copyOf(maskNames);
+        }
+        AUTHORITIES = authorities;
+        NAMES = names;
+    }
+
+    private RoleAuthorities() {
+    }
+
+    /**
+     * @return the mask of the given role names; names outside {@link RoleEnum} are ignored
+     */
+    public static int mask(Collection<String> roleNames) {
+        int mask = 0;
+        for (String roleName : roleNames) {
+            RoleEnum role = BY_NAME.get(roleName);
+            if (role != null) {
+                mask |= role.bit();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * @return the shared, immutable authority list for the mask
+     */
+    public static List<GrantedAuthority> authorities(int mask) {
+        return AUTHORITIES[mask & ALL];
+    }
+
+    /**
+     * @return the shared, immutable role names for the mask
+     */
+    public static List<String> names(int mask) {
+        return NAMES[mask & ALL];
+    }
+
+    public static boolean has(int mask, RoleEnum role) {
+        return (mask & role.bit()) != 0;
+    }
+}
@@ -0,0 +1,63 @@
+package com.learning.reactive.config.security;
+
+import com.learning.reactive.config.security.RouteClassifier.RouteAccess;
+import com.learning.reactive.data.model.RoleEnum;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Authorizes every exchange from its {@link RouteAccess}, reusing the classification the JWT
+ * filter stored on the exchange instead of matching the path again.
+ */
+@Component
+@RequiredArgsConstructor
+public class RouteAuthorizationManager implements ReactiveAuthorizationManager<AuthorizationContext> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+    private static final Mono<AuthorizationDecision> GRANTED_MONO = Mono.just(GRANTED);
+
+    private final RouteClassifier routeClassifier;
+
+    @Override
+    public Mono<AuthorizationDecision> check(Mono<Authentication> authentication, AuthorizationContext context) {
+        RouteAccess access = routeClassifier.classify(context.getExchange());
+        if (access == RouteAccess.PUBLIC) {
+            return GRANTED_MONO;
+        }
+        return authentication
+                .map(auth -> isAuthenticated(auth) && hasRouteRole(auth, access) ? GRANTED : DENIED)
+                .defaultIfEmpty(DENIED);
+    }
+
+    private static boolean isAuthenticated(Authentication authentication) {
+        return authentication.isAuthenticated() && !(authentication instanceof AnonymousAuthenticationToken);
+    }
+
+    private static boolean hasRouteRole(Authentication authentication, RouteAccess access) {
+        return switch (access) {
+            case ADMIN -> hasRole(authentication, RoleEnum.ROLE_ADMIN);
+            case GATEWAY -> hasRole(authentication, RoleEnum.ROLE_GATEWAY) || hasRole(authentication, RoleEnum.ROLE_ADMIN);
+            default -> true;
+        };
+    }
+
+    private static boolean hasRole(Authentication authentication, RoleEnum role) {
+        if (authentication instanceof TokenAuthentication tokenAuthentication) {
+            return RoleAuthorities.has(tokenAuthentication.getRoleMask(), role);
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (role.getName().equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
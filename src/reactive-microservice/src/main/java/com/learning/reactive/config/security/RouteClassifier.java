@@ -0,0 +1,166 @@
+package com.learning.reactive.config.security;
+
+import com.learning.reactive.constant.AppConstant;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The route access table compiled once into a character trie. {@link #classify(PathContainer)}
+ * walks the request path a single time without allocating and returns the access level of the
+ * first declared pattern that matches, the same precedence the former ordered matchers had.
+ * <p>
+ * Paths are matched the way handler mappings see them: segment by segment, percent-decoded and
+ * without matrix parameters, so {@code /user%73} and {@code /users;x=1} classify like {@code /users}.
+ * <p>
+ * Supported patterns are literal paths ({@code /swagger-ui/index.html}) and literal prefixes
+ * ending in {@code /**}, which match the prefix itself and everything below it.
+ */
+@Component
+public class RouteClassifier {
+
+    /** Exchange attribute holding the {@link RouteAccess} of the current request */
+    public static final String ROUTE_ACCESS_ATTRIBUTE = RouteClassifier.class.getName() + ".routeAccess";
+
+    public enum RouteAccess {
+        PUBLIC,
+        GATEWAY,
+        ADMIN,
+        AUTHENTICATED
+    }
+
+    private static final String SUBTREE_SUFFIX = "/**";
+
+    private final Node root = new Node();
+    private final RouteAccess[] accessByOrder;
+
+    public RouteClassifier() {
+        this(AppConstant.GATEWAY_URLS, AppConstant.PERMIT_ALL_URLS, AppConstant.ADMIN_URLS);
+    }
+
+    RouteClassifier(String[] publicPatterns, String[] adminPatterns) {
+        this(new String[0], publicPatterns, adminPatterns);
+    }
+
+    RouteClassifier(String[] gatewayPatterns, String[] publicPatterns, String[] adminPatterns) {
+        accessByOrder = new RouteAccess[gatewayPatterns.length + publicPatterns.length + adminPatterns.length];
+        int order = 0;
+        for (String pattern : gatewayPatterns) {
+            add(pattern, order, RouteAccess.GATEWAY);
+            accessByOrder[order++] = RouteAccess.GATEWAY;
+        }
+        for (String pattern : publicPatterns) {
+            add(pattern, order, RouteAccess.PUBLIC);
+            accessByOrder[order++] = RouteAccess.PUBLIC;
+        }
+        for (String pattern : adminPatterns) {
+            add(pattern, order, RouteAccess.ADMIN);
+            accessByOrder[order++] = RouteAccess.ADMIN;
+        }
+    }
+
+    /**
+     * Classifies the exchange once and keeps the result on it, so the JWT filter and the
+     * authorization manager always agree on the access level of a request.
+     */
+    public RouteAccess classify(ServerWebExchange exchange) {
+        RouteAccess access = exchange.getAttribute(ROUTE_ACCESS_ATTRIBUTE);
+        if (access == null) {
+            access = classify(exchange.getRequest().getPath().pathWithinApplication());
+            exchange.getAttributes().put(ROUTE_ACCESS_ATTRIBUTE, access);
+        }
+        return access;
+    }
+
+    public RouteAccess classify(String path) {
+        return classify(PathContainer.parsePath(path));
+    }
+
+    public RouteAccess classify(PathContainer path) {
+        int best = Integer.MAX_VALUE;
+        Node node = root;
+        List<PathContainer.Element> elements = path.elements();
+        for (int e = 0; e < elements.size() && node != null; e++) {
+            String value = valueToMatch(elements.get(e));
+            for (int i = 0; i < value.length() && node != null; i++) {
+                node = node.child(value.charAt(i));
+                if (node != null && node.subtreeOrder < best && nextIsSlashOrEnd(elements, e, value, i)) {
+                    best = node.subtreeOrder;
+                }
+            }
+        }
+        if (node != null && node.exactOrder < best) {
+            best = node.exactOrder;
+        }
+        return best == Integer.MAX_VALUE ? RouteAccess.AUTHENTICATED : accessByOrder[best];
+    }
+
+    private static String valueToMatch(PathContainer.Element element) {
+        return element instanceof PathContainer.PathSegment segment ? segment.valueToMatch() : element.value();
+    }
+
+    /**
+     * Whether the character after {@code value.charAt(i)} in the decoded path is a '/' or there is none.
+     */
+    private static boolean nextIsSlashOrEnd(List<PathContainer.Element> elements, int e, String value, int i) {
+        if (i + 1 < value.length()) {
+            return value.charAt(i + 1) == '/';
+        }
+        for (int next = e + 1; next < elements.size(); next++) {
+            String nextValue = valueToMatch(elements.get(next));
+            if (!nextValue.isEmpty()) {
+                return nextValue.charAt(0) == '/';
+            }
+        }
+        return true;
+    }
+
+    private void add(String pattern, int order, RouteAccess access) {
+        boolean subtree = pattern.endsWith(SUBTREE_SUFFIX);
+        String literal = subtree ? pattern.substring(0, pattern.length() - SUBTREE_SUFFIX.length()) : pattern;
+        if (literal.isEmpty() || literal.indexOf('*') >= 0 || literal.indexOf('?') >= 0 || literal.indexOf('{') >= 0) {
+            throw new IllegalArgumentException("Unsupported route pattern for " + access + ": " + pattern);
+        }
+        Node node = root;
+        for (int i = 0; i < literal.length(); i++) {
+            node = node.childOrCreate(literal.charAt(i));
+        }
+        if (subtree) {
+            node.subtreeOrder = Math.min(node.subtreeOrder, order);
+        } else {
+            node.exactOrder = Math.min(node.exactOrder, order);
+        }
+    }
+
+    private static final class Node {
+
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private int exactOrder = Integer.MAX_VALUE;
+        private int subtreeOrder = Integer.MAX_VALUE;
+
+        Node child(char key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node childOrCreate(char key) {
+            Node child = child(key);
+            if (child == null) {
+                child = new Node();
+                keys = Arrays.copyOf(keys, keys.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                keys[keys.length - 1] = key;
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.learning.reactive.config.security;
 
-import com.learning.reactive.constant.AppConstant;
+import com.learning.reactive.props.PasswordProperties;
+import com.learning.reactive.service.JwtKeyRing;
+import com.learning.reactive.service.PasswordHashingService;
 import com.learning.reactive.web.filter.JwtAuthenticationFilter;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,15 +16,15 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
 import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
-
-import javax.crypto.spec.SecretKeySpec;
+import reactor.core.publisher.Mono;
 
 @Configuration
 @RequiredArgsConstructor
@@ -30,14 +35,13 @@ public class SecurityConfig {
 
     @Bean
     public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http, ReactiveAuthenticationManager reactiveAuthenticationManager,
-                                                            JwtAuthenticationFilter jwtAuthenticationFilter) {
+                                                            JwtAuthenticationFilter jwtAuthenticationFilter,
+                                                            RouteAuthorizationManager routeAuthorizationManager) {
         return http
                 .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                // route table lives in AppConstant, compiled once by RouteClassifier
                 .authorizeExchange(authorize -> authorize
-                        .pathMatchers(AppConstant.PERMIT_ALL_URLS).permitAll()
-                        .pathMatchers("/users/**").hasAnyAuthority("ROLE_ADMIN")
-                        .pathMatchers("/auth/register").hasAnyAuthority("ROLE_ADMIN")
-                        .anyExchange().authenticated()
+                        .anyExchange().access(routeAuthorizationManager)
                 )
                 .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
                 .authenticationManager(reactiveAuthenticationManager)
@@ -47,24 +51,41 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordProperties passwordProperties) {
+        return CalibratedPasswordEncoder.create(passwordProperties);
     }
 
     @Bean
-    public ReactiveAuthenticationManager reactiveAuthenticationManager(ReactiveUserDetailsService reactiveUserDetailsService) {
+    public ReactiveAuthenticationManager reactiveAuthenticationManager(ReactiveUserDetailsService reactiveUserDetailsService,
+                                                                       ReactiveUserDetailsPasswordService reactiveUserDetailsPasswordService,
+                                                                       PasswordHashingService passwordHashingService) {
         UserDetailsRepositoryReactiveAuthenticationManager authManager =
                 new UserDetailsRepositoryReactiveAuthenticationManager(reactiveUserDetailsService);
-        authManager.setPasswordEncoder(passwordEncoder());
+        // password checks run on the bounded hashing pool instead of the event loop
+        authManager.setPasswordEncoder(passwordHashingService.timedEncoder());
+        authManager.setScheduler(passwordHashingService.scheduler());
+        // rehash and persist on login when the stored hash uses another algorithm or cost
+        authManager.setUserDetailsPasswordService(reactiveUserDetailsPasswordService);
         return authManager;
     }
 
     @Bean
-    public ReactiveJwtDecoder reactiveJwtDecoder() {
-        String secretKey = "your-256-bit-secret"; // must match signing key
-        byte[] keyBytes = secretKey.getBytes();
-        SecretKeySpec key = new SecretKeySpec(keyBytes, "HmacSHA256");
-        return NimbusReactiveJwtDecoder.withSecretKey(key).build();
+    public ReactiveJwtDecoder reactiveJwtDecoder(JwtKeyRing jwtKeyRing) {
+        // verifies with the same key ring as JwtService, so HMAC and asymmetric kids both resolve
+        return token -> Mono.fromCallable(() -> toJwt(token, jwtKeyRing.parser().parseSignedClaims(token)))
+                .onErrorMap(JwtException.class, e -> new BadJwtException(e.getMessage(), e));
+    }
+
+    private Jwt toJwt(String token, Jws<Claims> jws) {
+        Claims claims = jws.getPayload();
+        Jwt.Builder builder = Jwt.withTokenValue(token)
+                .headers(headers -> headers.putAll(jws.getHeader()))
+                .claims(jwtClaims -> jwtClaims.putAll(claims))
+                .expiresAt(claims.getExpiration().toInstant());
+        if (claims.getIssuedAt() != null) {
+            builder.issuedAt(claims.getIssuedAt().toInstant());
+        }
+        return builder.build();
     }
 
 }
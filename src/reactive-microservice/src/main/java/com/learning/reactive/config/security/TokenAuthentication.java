@@ -0,0 +1,68 @@
+package com.learning.reactive.config.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Authentication established from a verified bearer token. Unlike
+ * {@code UsernamePasswordAuthenticationToken} it does not copy its authorities, so one instance
+ * is built per verified token, cached with it and shared by every request carrying the token.
+ */
+public final class TokenAuthentication implements Authentication {
+
+    private final String name;
+    private final int roleMask;
+
+    public TokenAuthentication(String name, int roleMask) {
+        this.name = name;
+        this.roleMask = roleMask;
+    }
+
+    public int getRoleMask() {
+        return roleMask;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public List<GrantedAuthority> getAuthorities() {
+        return RoleAuthorities.authorities(roleMask);
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getDetails() {
+        return null;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return name;
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return true;
+    }
+
+    @Override
+    public void setAuthenticated(boolean authenticated) {
+        if (!authenticated) {
+            throw new IllegalArgumentException("A token authentication cannot be marked unauthenticated");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TokenAuthentication[name=" + name + ", authorities=" + getAuthorities() + "]";
+    }
+}
@@ -1,12 +1,26 @@
 package com.learning.reactive.constant;
 
 public class AppConstant {
+    /** Routes restricted to ROLE_GATEWAY or ROLE_ADMIN; matched before PERMIT_ALL_URLS so /auth/** does not open them */
+    public static final String[] GATEWAY_URLS = {
+            "/auth/introspect"
+    };
+
     public static final String[] PERMIT_ALL_URLS = {
             "/auth/**",
             "/swagger-ui/index.html",
             "/v3/api-docs/**",
             "/swagger-ui/**",
             "/api-docs/**",
-            "/resources/**"
+            "/resources/**",
+            "/.well-known/**"
+    };
+
+    /** Routes restricted to ROLE_ADMIN; PERMIT_ALL_URLS is matched first and wins on overlap */
+    public static final String[] ADMIN_URLS = {
+            "/users/**",
+            "/auth/register",
+            "/actuator/**",
+            "/admin/**"
     };
 }
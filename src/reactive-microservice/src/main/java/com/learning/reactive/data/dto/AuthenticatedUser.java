@@ -0,0 +1,42 @@
+package com.learning.reactive.data.dto;
+
+import com.learning.reactive.data.model.AccountStatusEnum;
+import com.learning.reactive.data.model.User;
+import lombok.Getter;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.List;
+
+/**
+ * Security principal produced on login. It keeps the user row and role names loaded by the
+ * authentication manager, so token minting needs no further queries.
+ */
+@Getter
+public class AuthenticatedUser extends org.springframework.security.core.userdetails.User {
+
+    private final User user;
+    private final List<String> roleNames;
+
+    public AuthenticatedUser(User user, List<String> roleNames) {
+        this(user, roleNames, user.getPassword());
+    }
+
+    private AuthenticatedUser(User user, List<String> roleNames, String password) {
+        super(user.getUsername(),
+                password,
+                user.getAccountStatus() == AccountStatusEnum.ACTIVE,
+                !user.isAccountExpired(),
+                !user.isCredentialsExpired(),
+                !user.isAccountLocked(),
+                AuthorityUtils.createAuthorityList(roleNames));
+        this.user = user;
+        this.roleNames = List.copyOf(roleNames);
+    }
+
+    /**
+     * @return a copy carrying a re-encoded password hash
+     */
+    public AuthenticatedUser withPassword(String encodedPassword) {
+        return new AuthenticatedUser(user, roleNames, encodedPassword);
+    }
+}
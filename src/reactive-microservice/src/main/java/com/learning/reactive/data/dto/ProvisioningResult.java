@@ -0,0 +1,33 @@
+package com.learning.reactive.data.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.learning.reactive.common.api.response.error.FieldValidationError;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.UUID;
+
+@Schema(description = "Outcome of one record of a bulk provisioning upload")
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record ProvisioningResult(
+        @Schema(description = "Zero-based position of the record in the upload") long index,
+        @Schema(description = "Username of the record") String username,
+        @Schema(description = "Outcome of the record") Status status,
+        @Schema(description = "Id of the created user") UUID userId,
+        @Schema(description = "Reasons the record was rejected") List<FieldValidationError> errors) {
+
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        INVALID,
+        FAILED
+    }
+
+    public static ProvisioningResult created(long index, String username, UUID userId) {
+        return new ProvisioningResult(index, username, Status.CREATED, userId, List.of());
+    }
+
+    public static ProvisioningResult of(long index, String username, Status status, List<FieldValidationError> errors) {
+        return new ProvisioningResult(index, username, status, null, errors);
+    }
+}
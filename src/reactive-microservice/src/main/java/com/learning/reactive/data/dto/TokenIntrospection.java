@@ -0,0 +1,26 @@
+package com.learning.reactive.data.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Introspection result of one token, in the position of the token in the request")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TokenIntrospection(
+        @Schema(description = "Whether the token is valid, unexpired and not revoked") boolean active,
+        @Schema(description = "Username the token was issued to") String sub,
+        @Schema(description = "Id of the user the token was issued to") String uid,
+        @Schema(description = "Role names granted by the token") List<String> roles,
+        @Schema(description = "Expiry as seconds since the epoch") Long exp,
+        @Schema(description = "How long the caller may reuse this result, in seconds") long cacheTtlSeconds) {
+
+    public static TokenIntrospection active(TokenPrincipal principal, List<String> roles, long cacheTtlSeconds) {
+        return new TokenIntrospection(true, principal.subject(), principal.userId(), roles,
+                principal.expiresAt().getEpochSecond(), cacheTtlSeconds);
+    }
+
+    public static TokenIntrospection inactive(long cacheTtlSeconds) {
+        return new TokenIntrospection(false, null, null, null, null, cacheTtlSeconds);
+    }
+}
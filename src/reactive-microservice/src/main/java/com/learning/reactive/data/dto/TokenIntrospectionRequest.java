@@ -0,0 +1,11 @@
+package com.learning.reactive.data.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+@Schema(description = "Access tokens to introspect in one call")
+public record TokenIntrospectionRequest(
+        @Schema(description = "Raw access tokens, without the Bearer prefix") @NotEmpty List<String> tokens) {
+}
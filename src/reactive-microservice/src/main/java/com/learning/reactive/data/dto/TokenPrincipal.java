@@ -0,0 +1,12 @@
+package com.learning.reactive.data.dto;
+
+import java.time.Instant;
+
+/**
+ * Immutable view of a verified JWT, produced by a single signature check and claims parse.
+ *
+ * @param roleMask roles as a bitmask over {@link com.learning.reactive.data.model.RoleEnum}
+ * @param securityEpoch the user's security epoch when the token was minted; 0 for tokens that predate it
+ */
+public record TokenPrincipal(String subject, String userId, int roleMask, int securityEpoch, Instant expiresAt) {
+}
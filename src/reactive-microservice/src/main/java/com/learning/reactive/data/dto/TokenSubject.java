@@ -0,0 +1,21 @@
+package com.learning.reactive.data.dto;
+
+import com.learning.reactive.data.model.AccountStatusEnum;
+import com.learning.reactive.data.model.User;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Everything token minting reads about a user; refresh loads just these columns.
+ *
+ * @param securityEpoch embedded in minted tokens, which stop working once the user's epoch moves past it
+ */
+public record TokenSubject(UUID id, String username, AccountStatusEnum accountStatus, List<String> roleNames,
+                           int securityEpoch) {
+
+    public static TokenSubject of(User user, List<String> roleNames) {
+        return new TokenSubject(user.getId(), user.getUsername(), user.getAccountStatus(), roleNames,
+                user.getSecurityEpoch());
+    }
+}
@@ -0,0 +1,7 @@
+package com.learning.reactive.data.dto;
+
+/**
+ * Result of the single-statement registration uniqueness check.
+ */
+public record UniquenessProbe(boolean usernameTaken, boolean emailTaken, boolean mobileTaken) {
+}
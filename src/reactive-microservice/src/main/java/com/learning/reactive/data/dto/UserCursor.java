@@ -0,0 +1,36 @@
+package com.learning.reactive.data.dto;
+
+import com.learning.reactive.common.exception.BusinessException;
+import com.learning.reactive.common.exception.enums.ExceptionType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in the {@code (created_at, id)} ordering of users, carried to clients as an
+ * opaque base64url token.
+ */
+public record UserCursor(LocalDateTime createdAt, UUID id) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static UserCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new UserCursor(LocalDateTime.parse(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw BusinessException.builder(ExceptionType.INVALID_INPUT)
+                    .message("Invalid cursor")
+                    .cause(e)
+                    .build();
+        }
+    }
+}
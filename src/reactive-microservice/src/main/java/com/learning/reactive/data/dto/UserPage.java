@@ -0,0 +1,11 @@
+package com.learning.reactive.data.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "One page of users ordered by creation time")
+public record UserPage(
+        @Schema(description = "Users on this page") List<UserResponse> items,
+        @Schema(description = "Opaque cursor for the next page; absent on the last page") String nextCursor) {
+}
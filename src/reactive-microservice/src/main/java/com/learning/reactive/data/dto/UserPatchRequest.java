@@ -0,0 +1,51 @@
+package com.learning.reactive.data.dto;
+
+import com.learning.reactive.data.model.AccountStatusEnum;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * Partial user update; only non-null fields are written.
+ */
+@Data
+@Schema(description = "Partial user update. Fields left out or null are not changed.")
+public class UserPatchRequest {
+
+    @NotNull(message = "Version is required")
+    @Schema(description = "Version the change is based on, as last read by the client", example = "3")
+    private Long version;
+
+    @Size(min = 3, max = 50, message = "First Name can not be greater than 50 character.")
+    private String firstName;
+
+    @Size(max = 50)
+    private String lastName;
+
+    @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters long")
+    @Schema(description = "User's Username", example = "Ramesh123")
+    private String username;
+
+    @Size(min = 8, message = "Password must be at least 8 characters long")
+    @Schema(description = "New password, stored hashed. Must be at least 8 characters long, contain at least one uppercase letter, one lowercase letter, and one digit.")
+    private String password;
+
+    @Email(message = "Email should be valid")
+    private String email;
+
+    @Pattern(regexp = "^[0-9]{10}$", message = "Mobile number must be 10 digits")
+    private String mobile;
+
+    private AccountStatusEnum accountStatus;
+
+    private Boolean accountLocked;
+
+    private Boolean accountExpired;
+
+    private Boolean credentialsExpired;
+
+    private Boolean passwordExpired;
+}
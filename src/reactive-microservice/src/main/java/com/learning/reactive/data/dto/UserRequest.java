@@ -61,7 +61,7 @@ public class UserRequest {
 
     @NotNull(message = "Roles are required")
     @Size(min = 1, message = "At least one role must be specified")
-    @Schema(description = "The role(s) of account. Must be one or more of the following: ROLE_USER, ROLE_ADMIN, ROLE_SALES, ROLE_OPERATIONS.")
+    @Schema(description = "The role(s) of account. Must be one or more of the following: ROLE_USER, ROLE_ADMIN, ROLE_SALES, ROLE_OPERATIONS, ROLE_GATEWAY.")
     private List<RoleEnum> roles;
 
     @JsonIgnore
@@ -0,0 +1,9 @@
+package com.learning.reactive.data.dto;
+
+import java.util.UUID;
+
+/**
+ * Projection of a user_roles row joined with its role name.
+ */
+public record UserRoleName(UUID userId, String roleName) {
+}
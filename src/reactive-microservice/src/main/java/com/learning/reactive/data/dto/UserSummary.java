@@ -0,0 +1,25 @@
+package com.learning.reactive.data.dto;
+
+import com.learning.reactive.data.model.AccountStatusEnum;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read model for the list and lookup endpoints: only the columns {@link UserResponse} exposes,
+ * so password hashes, lock flags and counters are never read from the table.
+ */
+public record UserSummary(
+        UUID id,
+        String firstName,
+        String lastName,
+        String username,
+        String email,
+        String mobile,
+        AccountStatusEnum accountStatus,
+        Long version,
+        LocalDateTime createdAt,
+        String createdBy,
+        LocalDateTime updatedAt,
+        String updatedBy) {
+}
@@ -0,0 +1,11 @@
+package com.learning.reactive.data.dto;
+
+import java.util.List;
+
+/**
+ * A projected user row together with its role names, loaded in a single statement.
+ *
+ * @param securityEpoch the row's security epoch after the statement
+ */
+public record UserSummaryWithRoles(UserSummary user, List<String> roleNames, int securityEpoch) {
+}
@@ -0,0 +1,11 @@
+package com.learning.reactive.data.dto;
+
+import com.learning.reactive.data.model.User;
+
+import java.util.List;
+
+/**
+ * A user row together with its role names, loaded in a single statement.
+ */
+public record UserWithRoles(User user, List<String> roleNames) {
+}
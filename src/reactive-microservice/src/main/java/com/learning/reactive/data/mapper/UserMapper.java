@@ -2,16 +2,17 @@ package com.learning.reactive.data.mapper;
 
 import com.learning.reactive.data.dto.UserRequest;
 import com.learning.reactive.data.dto.UserResponse;
+import com.learning.reactive.data.dto.UserSummary;
 import com.learning.reactive.data.model.Role;
 import com.learning.reactive.data.model.RoleEnum;
 import com.learning.reactive.data.model.User;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -20,7 +21,7 @@ public interface UserMapper {
 
     UserMapper INSTANCE = Mappers.getMapper(UserMapper.class);
 
-    @Mapping(target = "password", expression = "java(passwordEncoder.encode(userRequest.getPassword()))")
+    @Mapping(target = "password", source = "encodedPassword")
     @Mapping(target = "roles", source = "roles")
     @Mapping(target = "accountLocked", constant = "false")
     @Mapping(target = "accountExpired", constant = "false")
@@ -29,11 +30,23 @@ public interface UserMapper {
     @Mapping(target = "failedAttempts", constant = "0")
     @Mapping(target = "lastFailedAttempt", ignore = true)
     @Mapping(target = "lastPasswordChange", ignore = true)
-    User toUser(UserRequest userRequest, List<Role> roles, PasswordEncoder passwordEncoder);
+    @Mapping(target = "securityEpoch", ignore = true)
+    User toUser(UserRequest userRequest, List<Role> roles, String encodedPassword);
 
     @Mapping(target = "roles", expression = "java(mapRoles(user.getRoles()))")
     UserResponse toUserResponse(User user, List<Role> roles);
 
+    @Mapping(target = "roles", source = "roleNames")
+    @Mapping(target = "password", ignore = true)
+    @Mapping(target = "accountLocked", ignore = true)
+    @Mapping(target = "accountExpired", ignore = true)
+    @Mapping(target = "credentialsExpired", ignore = true)
+    @Mapping(target = "passwordExpired", ignore = true)
+    @Mapping(target = "failedAttempts", ignore = true)
+    @Mapping(target = "lastFailedAttempt", ignore = true)
+    @Mapping(target = "lastPasswordChange", ignore = true)
+    UserResponse toUserResponse(UserSummary user, Collection<String> roleNames);
+
     default LocalDateTime map(OffsetDateTime value) {
         return value != null ? value.toLocalDateTime() : null;
     }
@@ -45,5 +58,11 @@ public interface UserMapper {
                 .map(role -> RoleEnum.valueOf(role.getName()))
                 .collect(Collectors.toList());
     }
-}
 
+    default List<RoleEnum> mapRoleNames(Collection<String> roleNames) {
+        if (roleNames == null) return List.of();
+        return roleNames.stream()
+                .map(RoleEnum::valueOf)
+                .collect(Collectors.toList());
+    }
+}
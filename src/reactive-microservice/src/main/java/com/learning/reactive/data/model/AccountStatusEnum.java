@@ -13,4 +13,9 @@ public enum AccountStatusEnum {
     AccountStatusEnum(String name) {
         this.name = name;
     }
+
+    /** Single-character code carried in compact tokens */
+    public char code() {
+        return name().charAt(0);
+    }
 }
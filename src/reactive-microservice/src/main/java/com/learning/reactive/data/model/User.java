@@ -72,6 +72,10 @@ public class User {
     @Column("last_password_change")
     private LocalDateTime lastPasswordChange;
 
+    @JsonIgnore
+    @Column("security_epoch")
+    private int securityEpoch = 0;
+
     @Transient
     private List<Role> roles;
 
@@ -1,10 +1,14 @@
 package com.learning.reactive.data.repository;
 
+import com.learning.reactive.data.dto.UserRoleName;
 import com.learning.reactive.data.model.Role;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
 import java.util.UUID;
 
 @Repository
@@ -14,4 +18,13 @@ public interface RoleRepository extends ReactiveCrudRepository<Role, UUID> {
 
     Mono<Role> findByName(String name);
 
+    @Query("SELECT r.* FROM roles r JOIN user_roles ur ON ur.role_id = r.id WHERE ur.user_id = :userId")
+    Flux<Role> findAllByUserId(UUID userId);
+
+    @Query("SELECT r.name FROM roles r JOIN user_roles ur ON ur.role_id = r.id WHERE ur.user_id = :userId")
+    Flux<String> findNamesByUserId(UUID userId);
+
+    @Query("SELECT ur.user_id, r.name AS role_name FROM user_roles ur JOIN roles r ON r.id = ur.role_id WHERE ur.user_id IN (:userIds)")
+    Flux<UserRoleName> findNamesByUserIds(Collection<UUID> userIds);
+
 }
@@ -1,6 +1,10 @@
 package com.learning.reactive.data.repository;
 
+import com.learning.reactive.data.dto.UniquenessProbe;
+import com.learning.reactive.data.dto.UserSummary;
 import com.learning.reactive.data.model.User;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Mono;
@@ -8,7 +12,7 @@ import reactor.core.publisher.Mono;
 import java.util.UUID;
 
 @Repository
-public interface UserRepository extends ReactiveCrudRepository<User, UUID> {
+public interface UserRepository extends ReactiveCrudRepository<User, UUID>, UserRepositoryCustom {
 
     Mono<User> findByUsername(String username);
 
@@ -19,4 +23,22 @@ public interface UserRepository extends ReactiveCrudRepository<User, UUID> {
     Mono<Boolean> existsByEmail(String email);
 
     Mono<Boolean> existsByMobile(String mobile);
+
+    @Query("""
+            SELECT EXISTS(SELECT 1 FROM users WHERE username = :username) AS username_taken,
+                   EXISTS(SELECT 1 FROM users WHERE email = :email) AS email_taken,
+                   EXISTS(SELECT 1 FROM users WHERE mobile = :mobile) AS mobile_taken
+            """)
+    Mono<UniquenessProbe> probeUniqueness(String username, String email, String mobile);
+
+    @Query("""
+            SELECT id, first_name, last_name, username, email, mobile, account_status, version,
+                   created_at, created_by, updated_at, updated_by
+            FROM users WHERE id = :id
+            """)
+    Mono<UserSummary> findSummaryById(UUID id);
+
+    @Modifying
+    @Query("UPDATE users SET password = :password, updated_at = CURRENT_TIMESTAMP WHERE username = :username")
+    Mono<Integer> updatePasswordByUsername(String username, String password);
 }
\ No newline at end of file
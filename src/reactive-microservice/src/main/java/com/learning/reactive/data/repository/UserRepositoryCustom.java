@@ -0,0 +1,47 @@
+package com.learning.reactive.data.repository;
+
+import com.learning.reactive.data.dto.TokenSubject;
+import com.learning.reactive.data.dto.UserCursor;
+import com.learning.reactive.data.dto.UserSummary;
+import com.learning.reactive.data.dto.UserSummaryWithRoles;
+import com.learning.reactive.data.dto.UserWithRoles;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.UUID;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Loads a user and the names of all their roles in a single statement.
+     */
+    Mono<UserWithRoles> findByUsernameWithRoles(String username);
+
+    /**
+     * Loads only the columns token minting needs, with role names, in a single statement.
+     */
+    Mono<TokenSubject> findTokenSubjectByUsername(String username);
+
+    /**
+     * Reads users in {@code (created_at, id)} order strictly after the cursor, or from the start
+     * when the cursor is {@code null}.
+     */
+    Flux<UserSummary> findPage(UserCursor after, int limit);
+
+    /**
+     * Streams every user in {@code (created_at, id)} order, pulling {@code fetchSize} rows per round trip.
+     */
+    Flux<UserSummary> streamAll(int fetchSize);
+
+    /**
+     * Writes only the given columns in one compare-and-set statement that also bumps the version
+     * and returns the updated row with its role names.
+     *
+     * @param changes column name to new value; names must come from code, never from input
+     * @param bumpSecurityEpoch whether the change must invalidate the user's issued tokens
+     * @return the updated row, or empty when no row has this id and version
+     */
+    Mono<UserSummaryWithRoles> updateIfVersionMatches(UUID id, long version, Map<String, Object> changes,
+                                                      boolean bumpSecurityEpoch, String updatedBy);
+}
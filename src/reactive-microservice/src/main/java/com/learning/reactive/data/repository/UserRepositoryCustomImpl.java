@@ -0,0 +1,147 @@
+package com.learning.reactive.data.repository;
+
+import com.learning.reactive.data.dto.TokenSubject;
+import com.learning.reactive.data.dto.UserCursor;
+import com.learning.reactive.data.dto.UserSummary;
+import com.learning.reactive.data.dto.UserSummaryWithRoles;
+import com.learning.reactive.data.dto.UserWithRoles;
+import com.learning.reactive.data.model.AccountStatusEnum;
+import com.learning.reactive.data.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final String FIND_BY_USERNAME_WITH_ROLES = """
+            SELECT u.*, COALESCE(array_agg(r.name) FILTER (WHERE r.name IS NOT NULL), '{}') AS role_names
+            FROM users u
+            LEFT JOIN user_roles ur ON ur.user_id = u.id
+            LEFT JOIN roles r ON r.id = ur.role_id
+            WHERE u.username = :username
+            GROUP BY u.id
+            """;
+
+    private static final String FIND_TOKEN_SUBJECT_BY_USERNAME = """
+            SELECT u.id, u.username, u.account_status, u.security_epoch,
+                   COALESCE(array_agg(r.name) FILTER (WHERE r.name IS NOT NULL), '{}') AS role_names
+            FROM users u
+            LEFT JOIN user_roles ur ON ur.user_id = u.id
+            LEFT JOIN roles r ON r.id = ur.role_id
+            WHERE u.username = :username
+            GROUP BY u.id
+            """;
+
+    private static final String SUMMARY_COLUMNS = """
+            id, first_name, last_name, username, email, mobile, account_status, version,
+            created_at, created_by, updated_at, updated_by""";
+
+    private static final String FIND_FIRST_PAGE = """
+            SELECT %s FROM users
+            ORDER BY created_at, id
+            LIMIT :limit
+            """.formatted(SUMMARY_COLUMNS);
+
+    private static final String FIND_PAGE_AFTER = """
+            SELECT %s FROM users
+            WHERE (created_at, id) > (:createdAt, :id)
+            ORDER BY created_at, id
+            LIMIT :limit
+            """.formatted(SUMMARY_COLUMNS);
+
+    private static final String STREAM_ALL = "SELECT %s FROM users ORDER BY created_at, id".formatted(SUMMARY_COLUMNS);
+
+    private static final String UPDATE_RETURNING_WITH_ROLES = """
+            WITH updated AS (
+                UPDATE users SET %s, version = version + 1, updated_at = CURRENT_TIMESTAMP, updated_by = :updatedBy
+                WHERE id = :id AND version = :version
+                RETURNING %s, security_epoch
+            )
+            SELECT updated.*, ARRAY(
+                SELECT r.name FROM user_roles ur JOIN roles r ON r.id = ur.role_id WHERE ur.user_id = updated.id
+            ) AS role_names
+            FROM updated
+            """;
+
+    private final DatabaseClient databaseClient;
+    private final R2dbcConverter r2dbcConverter;
+
+    @Override
+    public Mono<UserWithRoles> findByUsernameWithRoles(String username) {
+        return databaseClient.sql(FIND_BY_USERNAME_WITH_ROLES)
+                .bind("username", username)
+                .map((row, metadata) -> new UserWithRoles(
+                        r2dbcConverter.read(User.class, row, metadata),
+                        List.of(row.get("role_names", String[].class))
+                ))
+                .one();
+    }
+
+    @Override
+    public Mono<TokenSubject> findTokenSubjectByUsername(String username) {
+        return databaseClient.sql(FIND_TOKEN_SUBJECT_BY_USERNAME)
+                .bind("username", username)
+                .map((row, metadata) -> {
+                    String accountStatus = row.get("account_status", String.class);
+                    return new TokenSubject(
+                            row.get("id", UUID.class),
+                            row.get("username", String.class),
+                            accountStatus != null ? AccountStatusEnum.valueOf(accountStatus) : null,
+                            List.of(row.get("role_names", String[].class)),
+                            row.get("security_epoch", Integer.class));
+                })
+                .one();
+    }
+
+    @Override
+    public Flux<UserSummary> findPage(UserCursor after, int limit) {
+        DatabaseClient.GenericExecuteSpec spec = after == null
+                ? databaseClient.sql(FIND_FIRST_PAGE)
+                : databaseClient.sql(FIND_PAGE_AFTER)
+                .bind("createdAt", after.createdAt())
+                .bind("id", after.id());
+        return spec.bind("limit", limit)
+                .map((row, metadata) -> r2dbcConverter.read(UserSummary.class, row, metadata))
+                .all();
+    }
+
+    @Override
+    public Flux<UserSummary> streamAll(int fetchSize) {
+        // a bounded fetch size makes the driver use a portal, so rows arrive in demand-sized batches
+        return databaseClient.sql(STREAM_ALL)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map((row, metadata) -> r2dbcConverter.read(UserSummary.class, row, metadata))
+                .all();
+    }
+
+    @Override
+    public Mono<UserSummaryWithRoles> updateIfVersionMatches(UUID id, long version, Map<String, Object> changes,
+                                                             boolean bumpSecurityEpoch, String updatedBy) {
+        StringJoiner assignments = new StringJoiner(", ");
+        changes.keySet().forEach(column -> assignments.add(column + " = :" + column));
+        if (bumpSecurityEpoch) {
+            assignments.add("security_epoch = security_epoch + 1");
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient
+                .sql(UPDATE_RETURNING_WITH_ROLES.formatted(assignments, SUMMARY_COLUMNS))
+                .bind("id", id)
+                .bind("version", version)
+                .bind("updatedBy", updatedBy);
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            spec = spec.bind(change.getKey(), change.getValue());
+        }
+        return spec.map((row, metadata) -> new UserSummaryWithRoles(
+                        r2dbcConverter.read(UserSummary.class, row, metadata),
+                        List.of(row.get("role_names", String[].class)),
+                        row.get("security_epoch", Integer.class)))
+                .one();
+    }
+}
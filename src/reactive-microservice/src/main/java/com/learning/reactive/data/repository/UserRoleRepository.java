@@ -1,6 +1,8 @@
 package com.learning.reactive.data.repository;
 
 import com.learning.reactive.data.model.UserRole;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
@@ -14,4 +16,11 @@ public interface UserRoleRepository extends ReactiveCrudRepository<UserRole, UUI
     Flux<UserRole> findByUserId(UUID userId);
 
     Mono<Void> deleteByUserIdAndRoleId(UUID userId, UUID roleId);
+
+    @Modifying
+    @Query("""
+            INSERT INTO user_roles (user_id, role_id, created_by, updated_by)
+            SELECT :userId, role_id, :createdBy, :createdBy FROM unnest(:roleIds) AS role_id
+            """)
+    Mono<Integer> insertAll(UUID userId, UUID[] roleIds, String createdBy);
 }
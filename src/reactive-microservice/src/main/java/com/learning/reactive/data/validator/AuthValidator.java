@@ -5,9 +5,9 @@ import com.learning.reactive.data.dto.UserRequest;
 import com.learning.reactive.data.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Component
@@ -17,28 +17,28 @@ public class AuthValidator {
     private final UserRepository userRepository;
 
     public Mono<List<FieldValidationError>> validateRegistrationPayload(UserRequest userRequest) {
-        return Flux.concat(
-                        userRepository.existsByUsername(userRequest.getUsername())
-                                .filter(Boolean::booleanValue)
-                                .map(exists -> new FieldValidationError("username", userRequest.getUsername(), "Username already taken.")),
-
-                        userRepository.existsByEmail(userRequest.getEmail())
-                                .filter(Boolean::booleanValue)
-                                .map(exists -> new FieldValidationError("email", userRequest.getEmail(), "Email already taken.")),
-
-                        userRepository.existsByMobile(userRequest.getMobile())
-                                .filter(Boolean::booleanValue)
-                                .map(exists -> new FieldValidationError("mobile", userRequest.getMobile(), "Mobile number already taken.")),
-
-                        Mono.just(userRequest.getPassword())
-                                .filter(password -> !isValidPassword(password))
-                                .map(password -> new FieldValidationError("password", password,
-                                        "User's password. Must be at least 8 characters long, contain at least one uppercase letter, one lowercase letter, and one digit."))
-                )
-                .collectList();
+        // username, email and mobile are checked by one statement
+        return userRepository.probeUniqueness(userRequest.getUsername(), userRequest.getEmail(), userRequest.getMobile())
+                .map(probe -> {
+                    List<FieldValidationError> errors = new ArrayList<>();
+                    if (probe.usernameTaken()) {
+                        errors.add(new FieldValidationError("username", userRequest.getUsername(), "Username already taken."));
+                    }
+                    if (probe.emailTaken()) {
+                        errors.add(new FieldValidationError("email", userRequest.getEmail(), "Email already taken."));
+                    }
+                    if (probe.mobileTaken()) {
+                        errors.add(new FieldValidationError("mobile", userRequest.getMobile(), "Mobile number already taken."));
+                    }
+                    if (!isValidPassword(userRequest.getPassword())) {
+                        errors.add(new FieldValidationError("password", userRequest.getPassword(),
+                                "User's password. Must be at least 8 characters long, contain at least one uppercase letter, one lowercase letter, and one digit."));
+                    }
+                    return errors;
+                });
     }
 
-    private Boolean isValidPassword(String password) {
+    public boolean isValidPassword(String password) {
         boolean hasUppercase = password.chars().anyMatch(Character::isUpperCase);
         boolean hasLowercase = password.chars().anyMatch(Character::isLowerCase);
         boolean hasDigit = password.chars().anyMatch(Character::isDigit);
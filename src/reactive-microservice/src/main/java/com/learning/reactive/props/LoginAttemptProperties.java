@@ -0,0 +1,20 @@
+package com.learning.reactive.props;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.login")
+public class LoginAttemptProperties {
+
+    /** Consecutive failed logins that lock an account */
+    private int maxFailedAttempts = 5;
+
+    /** How long an account stays locked after the last failed login, in seconds */
+    private long lockDurationSeconds = 900;
+
+    /** Interval between batched writes of failed-login counters to the users table, in seconds */
+    private long flushIntervalSeconds = 5;
+}
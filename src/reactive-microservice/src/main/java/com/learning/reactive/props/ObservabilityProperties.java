@@ -0,0 +1,17 @@
+package com.learning.reactive.props;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.observability")
+public class ObservabilityProperties {
+
+    /** Repository calls slower than this are logged with the endpoint that issued them, in milliseconds */
+    private long slowQueryThresholdMillis = 200;
+
+    /** Fraction of authenticated requests whose phases are timed, between 0 (off) and 1 (all) */
+    private double phaseSampleRate = 0.01;
+}
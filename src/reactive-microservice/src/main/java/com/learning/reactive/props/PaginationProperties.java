@@ -0,0 +1,20 @@
+package com.learning.reactive.props;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.pagination")
+public class PaginationProperties {
+
+    /** Page size used when the client does not ask for one */
+    private int defaultPageSize = 50;
+
+    /** Largest page size a client may ask for; larger requests are clamped */
+    private int maxPageSize = 500;
+
+    /** Rows fetched per round trip when streaming, also the batch size for role lookups */
+    private int streamFetchSize = 500;
+}
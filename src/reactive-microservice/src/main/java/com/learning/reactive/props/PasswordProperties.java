@@ -0,0 +1,26 @@
+package com.learning.reactive.props;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.password")
+public class PasswordProperties {
+
+    /** Threads dedicated to password hashing; 0 means one per available processor */
+    private int hashingThreads = 0;
+
+    /** Hash requests allowed to wait for a free hashing thread before new ones are rejected */
+    private int hashingQueueCapacity = 64;
+
+    /** Target BCrypt hash latency in milliseconds used to calibrate the cost at startup; 0 disables calibration */
+    private long hashingTargetMillis = 50;
+
+    /** BCrypt cost used when calibration is disabled; also the lowest cost calibration may choose */
+    private int bcryptStrength = 10;
+
+    /** Highest BCrypt cost calibration may choose */
+    private int maxBcryptStrength = 14;
+}
@@ -0,0 +1,30 @@
+package com.learning.reactive.props;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.provisioning")
+public class ProvisioningProperties {
+
+    /**
+     * Largest chunk whose users insert stays within Postgres's 65535 bind parameters, counting
+     * all nine columns of a row as bound even though the auditor is shared.
+     */
+    public static final int MAX_CHUNK_SIZE = 65535 / 9;
+
+    /** Users inserted per batch statement (and per transaction), at most {@link #MAX_CHUNK_SIZE} */
+    private int chunkSize = 500;
+
+    /** Passwords hashed in parallel for one upload; keep below the hashing pool's capacity */
+    private int hashingConcurrency = 4;
+
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("app.provisioning.chunkSize must be between 1 and " + MAX_CHUNK_SIZE);
+        }
+        this.chunkSize = chunkSize;
+    }
+}
@@ -0,0 +1,54 @@
+package com.learning.reactive.props;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    /** Switches all rate limiting off when false */
+    private boolean enabled = true;
+
+    /** Distinct keys tracked per limit; a full limit evicts the keys closest to a full bucket */
+    private int maxKeys = 100000;
+
+    /** Interval between sweeps dropping keys whose bucket has refilled, in seconds */
+    private long evictionIntervalSeconds = 60;
+
+    /**
+     * Load balancers and proxies, as addresses or CIDR ranges, whose {@code X-Forwarded-For} is
+     * trusted to name the client; connections from anywhere else are limited by their own address
+     */
+    private List<String> trustedProxies = new ArrayList<>();
+
+    /** Per client address limits, first matching route wins */
+    private List<Route> routes = new ArrayList<>();
+
+    /** Per username limit on login attempts */
+    private Limit username = new Limit();
+
+    @Data
+    public static class Limit {
+
+        /** Requests allowed in a burst */
+        private int capacity = 5;
+
+        /** Requests added back to the bucket per second */
+        private double refillPerSecond = 0.2;
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class Route extends Limit {
+
+        /** Path pattern the limit applies to, e.g. /auth/login */
+        private String pattern;
+    }
+}
@@ -4,17 +4,120 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Data
 @Component
 @ConfigurationProperties(prefix = "app.token")
 public class TokenProperties {
 
-    /** Secret key for signing JWTs */
+    /** Secret key for signing JWTs; registered in the key ring under the key id "default" */
     private String secret;
 
+    /** Key id ({@code kid} header) used to sign newly minted tokens */
+    private String activeKeyId = "default";
+
+    /** Signing secrets by key id; every key other than the active one is accepted for verification only */
+    private Map<String, String> keys = new LinkedHashMap<>();
+
+    /** Signature algorithm for newly minted tokens */
+    private Algorithm algorithm = Algorithm.HS256;
+
+    /** Asymmetric key pairs by key id; entries without a private key are accepted for verification only */
+    private Map<String, KeyPair> keyPairs = new LinkedHashMap<>();
+
+    /**
+     * Optional properties file with key material, read at startup and again on every key ring reload.
+     * Entries use the names above without the prefix, e.g. {@code activeKeyId}, {@code keys.<kid>} or
+     * {@code keyPairs.<kid>.publicKey} (base64 DER); they override or add to the values configured here.
+     */
+    private String keyFile;
+
+    /** Max-age in seconds advertised on the JWKS endpoint */
+    private long jwksMaxAgeSeconds = 300;
+
+    /** Claim layout of newly minted access tokens; both layouts are accepted when parsing */
+    private ClaimProfile claimProfile = ClaimProfile.STANDARD;
+
     /** Access token expiry in seconds */
     private Long accessTokenExpirySeconds;
 
     /** Refresh token expiry in seconds */
     private Long refreshTokenExpirySeconds;
+
+    /** Verified-token cache settings */
+    private Cache cache = new Cache();
+
+    /** Refresh-token family store settings */
+    private RefreshStore refreshStore = new RefreshStore();
+
+    /** Batch introspection settings */
+    private Introspection introspection = new Introspection();
+
+    public enum Algorithm {
+        HS256,
+        ES256,
+        EdDSA
+    }
+
+    public enum ClaimProfile {
+        /** userId, username, accountStatus and the role name array alongside the role mask */
+        STANDARD,
+        /** uid (base64url UUID), st (status character) and rm (role mask) only; the username stays in sub */
+        COMPACT
+    }
+
+    @Data
+    public static class KeyPair {
+
+        /** PKCS#8 private key, PEM or base64 DER */
+        private String privateKey;
+
+        /** X.509 public key, PEM or base64 DER */
+        private String publicKey;
+    }
+
+    @Data
+    public static class Cache {
+
+        /** Maximum number of verified tokens kept in memory */
+        private int maxEntries = 10000;
+
+        /** Interval in seconds between sweeps of expired entries */
+        private long purgeIntervalSeconds = 60;
+    }
+
+    @Data
+    public static class RefreshStore {
+
+        /** Interval in seconds between batched writes of issued and revoked families; rotations are written as they happen */
+        private long flushIntervalSeconds = 5;
+
+        /** Interval in seconds between deletions of expired and revoked families from the table */
+        private long purgeIntervalSeconds = 3600;
+
+        /** Interval in seconds between merges of families written by other instances */
+        private long resyncIntervalSeconds = 60;
+
+        /** Live families (login sessions) per user; a further login revokes the one closest to expiry */
+        private int maxFamiliesPerUser = 10;
+    }
+
+    @Data
+    public static class Introspection {
+
+        /** Maximum number of tokens accepted in one introspection call */
+        private int maxBatchSize = 500;
+
+        /** Upper bound of the cache hint returned for an active token; bounds how long a revocation can go unseen */
+        private long maxCacheSeconds = 30;
+
+        /**
+         * Cache hint returned for a token that can never become active again, i.e. one behind the
+         * user's security epoch; tokens that fail to decode get {@link #maxCacheSeconds}, since an
+         * unknown key id may be published by the next key ring reload
+         */
+        private long inactiveCacheSeconds = 300;
+    }
 }
@@ -1,21 +1,23 @@
 package com.learning.reactive.service;
 
 import com.learning.reactive.common.exception.BusinessException;
+import com.learning.reactive.common.exception.RateLimitExceededException;
 import com.learning.reactive.common.exception.enums.ExceptionType;
+import com.learning.reactive.data.dto.AuthenticatedUser;
 import com.learning.reactive.data.dto.AuthenticationResponse;
 import com.learning.reactive.data.dto.UserRequest;
 import com.learning.reactive.data.dto.UserResponse;
 import com.learning.reactive.data.mapper.UserMapper;
 import com.learning.reactive.data.model.Role;
 import com.learning.reactive.data.model.User;
-import com.learning.reactive.data.model.UserRole;
 import com.learning.reactive.data.validator.AuthValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
@@ -29,38 +31,33 @@ public class AuthService {
     private final RoleService roleService;
     private final UserRoleService userRoleService;
     private final UserService userService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final AuthValidator authValidator;
     private final JwtService jwtService;
+    private final TransactionalOperator transactionalOperator;
+    private final LoginAttemptService loginAttemptService;
+    private final RateLimitService rateLimitService;
 
     public Mono<UserResponse> register(UserRequest userRequest) {
-        return validateRequest(userRequest)
-                .thenMany(roleService.getByRoleNames(userRequest.getRoleNames()))
-                .collectList()
-                .flatMap(roles -> createUser(userRequest, roles))
-                .flatMap(savedUser ->
-                        assignRolesToUser(savedUser, userRequest.getRoleNames()) // save user_roles
-                                .then(userService.findById(savedUser.getId())) // fetch full user
-                );
+        return validateRequest(userRequest) // uniqueness probe
+                .then(Mono.zip(
+                        roleService.getByRoleNames(userRequest.getRoleNames()).collectList(), // role catalog, no I/O
+                        passwordHashingService.encode(userRequest.getPassword())))
+                .flatMap(rolesAndPassword -> createUser(userRequest, rolesAndPassword.getT1(), rolesAndPassword.getT2()));
     }
 
     public Mono<AuthenticationResponse> authenticate(String username, String password) {
+        long waitNanos = rateLimitService.tryAcquireForUsername(username);
+        if (waitNanos > 0) {
+            return Mono.error(new RateLimitExceededException(waitNanos));
+        }
         return reactiveAuthenticationManager
                 .authenticate(new UsernamePasswordAuthenticationToken(username, password))
-                .then(userService.findByUsername(username))
-                .flatMap(this::createAuthResponse);
-    }
-
-    private Mono<AuthenticationResponse> createAuthResponse(User user) {
-        return jwtService.generateAccessToken(user)
-                .map(token -> {
-                    String refreshToken = jwtService.generateRefreshToken(user);
-                    return new AuthenticationResponse(
-                            user.getId().toString(),
-                            token,
-                            refreshToken
-                    );
-                });
+                .doOnError(BadCredentialsException.class, e -> loginAttemptService.recordFailure(username))
+                .map(authentication -> (AuthenticatedUser) authentication.getPrincipal())
+                .doOnNext(principal -> loginAttemptService.recordSuccess(principal.getUsername()))
+                // reuse the user and roles loaded by the authentication manager
+                .map(principal -> jwtService.generateAuthResponse(principal.getUser(), principal.getRoleNames()));
     }
 
     private Mono<Void> validateRequest(UserRequest request) {
@@ -75,19 +72,18 @@ public class AuthService {
                 });
     }
 
-    private Mono<User> createUser(UserRequest request, List<Role> roles) {
-        User user = UserMapper.INSTANCE.toUser(request, roles, passwordEncoder);
-        return userService.save(user);
-    }
-
-    private Mono<Void> assignRolesToUser(User user, List<String> roleNames) {
-        return roleService.getByRoleNames(roleNames)
-                .flatMap(role -> {
-                    UserRole userRole = new UserRole();
-                    userRole.setUserId(user.getId());
-                    userRole.setRoleId(role.getId());
-                    return userRoleService.save(userRole);
-                })
-                .then();  // ignoring the return value of userRoleService.save(userRole);
+    /**
+     * Inserts the user and all role assignments in one transaction and answers from in-memory state.
+     * Hashing happens before the transaction so no pooled connection is held while BCrypt runs.
+     */
+    private Mono<UserResponse> createUser(UserRequest request, List<Role> roles, String encodedPassword) {
+        User user = UserMapper.INSTANCE.toUser(request, roles, encodedPassword);
+        return userService.save(user)
+                .flatMap(savedUser -> userRoleService.assignRoles(
+                                savedUser.getId(),
+                                roles.stream().map(Role::getId).toList(),
+                                savedUser.getCreatedBy())
+                        .then(Mono.fromSupplier(() -> UserMapper.INSTANCE.toUserResponse(savedUser, roles))))
+                .as(transactionalOperator::transactional);
     }
 }
@@ -0,0 +1,327 @@
+package com.learning.reactive.service;
+
+import com.learning.reactive.props.TokenProperties;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.EdECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Holds the pre-derived JWT signing keys. Tokens are minted with the active key and a {@code kid}
+ * header; verification resolves the key by {@code kid} so retired keys keep validating live sessions.
+ * Keys come from {@code app.token} plus the optional {@code app.token.keyFile}, which is the only
+ * source re-read by {@link #reload()}; the whole ring is swapped atomically, and a reload that fails
+ * keeps the current ring.
+ */
+@Component
+@Slf4j
+public class JwtKeyRing {
+
+    static final String DEFAULT_KEY_ID = "default";
+
+    private static final List<String> ASYMMETRIC_KEY_ALGORITHMS = List.of("EC", "Ed25519", "Ed448");
+
+    private static final String KEY_FILE_PREFIX = "app.token";
+
+    private final TokenProperties tokenProperties;
+    private final JwtParser parser;
+    private volatile Snapshot snapshot;
+
+    public JwtKeyRing(TokenProperties tokenProperties) {
+        this.tokenProperties = tokenProperties;
+        this.snapshot = Snapshot.of(effectiveProperties(), null);
+        this.parser = Jwts.parser()
+                .keyLocator(this::locateKey)
+                .build();
+    }
+
+    /**
+     * @return a thread-safe parser that verifies against the current ring
+     */
+    public JwtParser parser() {
+        return parser;
+    }
+
+    /**
+     * Stamps the active {@code kid} on the builder and signs with the matching key.
+     */
+    public JwtBuilder sign(JwtBuilder builder) {
+        Snapshot current = snapshot;
+        return builder
+                .header().keyId(current.activeKeyId()).and()
+                .signWith(current.activeKey());
+    }
+
+    public String activeKeyId() {
+        return snapshot.activeKeyId();
+    }
+
+    public Set<String> keyIds() {
+        return snapshot.keys().keySet();
+    }
+
+    /**
+     * @return the public verification keys as a JSON Web Key Set; symmetric keys are never published
+     */
+    public Map<String, Object> jwks() {
+        return snapshot.jwks();
+    }
+
+    /**
+     * Re-reads {@code app.token.keyFile} on top of the startup configuration and swaps in the new
+     * ring. Without a key file there is nothing new to pick up and the ring is rebuilt unchanged.
+     */
+    public synchronized void reload() {
+        this.snapshot = Snapshot.of(effectiveProperties(), snapshot);
+        log.info("JWT key ring reloaded, active kid: {}, known kids: {}", snapshot.activeKeyId(), snapshot.keys().keySet());
+    }
+
+    /**
+     * The startup key configuration with the key file, when configured, bound over it: scalar
+     * entries replace the configured values and {@code keys}/{@code keyPairs} entries are added.
+     */
+    private TokenProperties effectiveProperties() {
+        TokenProperties effective = new TokenProperties();
+        effective.setSecret(tokenProperties.getSecret());
+        effective.setActiveKeyId(tokenProperties.getActiveKeyId());
+        effective.setAlgorithm(tokenProperties.getAlgorithm());
+        effective.setKeys(new LinkedHashMap<>(tokenProperties.getKeys()));
+        effective.setKeyPairs(new LinkedHashMap<>(tokenProperties.getKeyPairs()));
+        if (StringUtils.hasText(tokenProperties.getKeyFile())) {
+            new Binder(new MapConfigurationPropertySource(readKeyFile(Path.of(tokenProperties.getKeyFile()))))
+                    .bind(KEY_FILE_PREFIX, Bindable.ofInstance(effective));
+        }
+        return effective;
+    }
+
+    private static Map<String, String> readKeyFile(Path keyFile) {
+        Properties entries = new Properties();
+        try (Reader reader = Files.newBufferedReader(keyFile, StandardCharsets.UTF_8)) {
+            entries.load(reader);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read token key file " + keyFile, e);
+        }
+        Map<String, String> prefixed = new LinkedHashMap<>();
+        entries.stringPropertyNames().forEach(name -> prefixed.put(KEY_FILE_PREFIX + "." + name, entries.getProperty(name)));
+        return prefixed;
+    }
+
+    private Key locateKey(Header header) {
+        String keyId = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+        // tokens minted before key ids were introduced carry no kid
+        Key key = snapshot.keys().get(keyId != null ? keyId : DEFAULT_KEY_ID);
+        if (key == null) {
+            throw new JwtException("Unknown signing key id: " + keyId);
+        }
+        return key;
+    }
+
+    /**
+     * @param ephemeral key pairs generated for kids without a configured pair; carried into the next
+     *                  snapshot so a reload does not invalidate the tokens they signed
+     */
+    private record Snapshot(String activeKeyId, Key activeKey, Map<String, Key> keys, Map<String, Object> jwks,
+                            Map<String, KeyPair> ephemeral) {
+
+        static Snapshot of(TokenProperties tokenProperties, Snapshot previous) {
+            Map<String, Key> keys = new LinkedHashMap<>();
+            Map<String, PublicKey> publicKeys = new LinkedHashMap<>();
+            Map<String, PrivateKey> privateKeys = new LinkedHashMap<>();
+            Map<String, KeyPair> ephemeral = new LinkedHashMap<>();
+
+            if (tokenProperties.getSecret() != null) {
+                keys.put(DEFAULT_KEY_ID, deriveSecretKey(tokenProperties.getSecret()));
+            }
+            tokenProperties.getKeys().forEach((keyId, secret) -> putUnique(keys, keyId, deriveSecretKey(secret)));
+            tokenProperties.getKeyPairs().forEach((keyId, keyPair) -> {
+                if (keys.containsKey(keyId)) {
+                    throw duplicateKeyId(keyId);
+                }
+                publicKeys.put(keyId, parsePublicKey(keyPair.getPublicKey()));
+                if (keyPair.getPrivateKey() != null) {
+                    privateKeys.put(keyId, parsePrivateKey(keyPair.getPrivateKey()));
+                }
+            });
+            if (previous != null) {
+                // configured keys win; a previously generated pair only fills a kid nothing else claims
+                previous.ephemeral().forEach((keyId, keyPair) -> {
+                    if (!keys.containsKey(keyId) && !publicKeys.containsKey(keyId)) {
+                        ephemeral.put(keyId, keyPair);
+                    }
+                });
+            }
+
+            String activeKeyId = tokenProperties.getActiveKeyId();
+            Key activeKey;
+            if (tokenProperties.getAlgorithm() == TokenProperties.Algorithm.HS256) {
+                activeKey = keys.get(activeKeyId);
+            } else if (publicKeys.containsKey(activeKeyId)) {
+                activeKey = privateKeys.get(activeKeyId);
+            } else {
+                if (keys.containsKey(activeKeyId)) {
+                    throw duplicateKeyId(activeKeyId);
+                }
+                KeyPair keyPair = ephemeral.get(activeKeyId);
+                if (!matches(keyPair, tokenProperties.getAlgorithm())) {
+                    keyPair = generateKeyPair(tokenProperties.getAlgorithm());
+                    ephemeral.put(activeKeyId, keyPair);
+                    log.warn("No key pair configured for kid '{}', generated an ephemeral {} key pair. "
+                            + "Tokens will not survive a restart or verify on other instances.", activeKeyId, tokenProperties.getAlgorithm());
+                }
+                activeKey = keyPair.getPrivate();
+            }
+            if (activeKey == null) {
+                throw new IllegalArgumentException("token.activeKeyId '" + activeKeyId + "' has no configured signing key");
+            }
+
+            ephemeral.forEach((keyId, keyPair) -> publicKeys.put(keyId, keyPair.getPublic()));
+            keys.putAll(publicKeys);
+            return new Snapshot(activeKeyId, activeKey, Map.copyOf(keys), toJwks(publicKeys), Map.copyOf(ephemeral));
+        }
+
+        private static void putUnique(Map<String, Key> keys, String keyId, Key key) {
+            if (keys.putIfAbsent(keyId, key) != null) {
+                throw duplicateKeyId(keyId);
+            }
+        }
+
+        private static IllegalArgumentException duplicateKeyId(String keyId) {
+            return new IllegalArgumentException("Signing key id '" + keyId + "' is configured more than once");
+        }
+
+        private static boolean matches(KeyPair keyPair, TokenProperties.Algorithm algorithm) {
+            return keyPair != null && switch (algorithm) {
+                case ES256 -> keyPair.getPublic() instanceof ECPublicKey;
+                case EdDSA -> keyPair.getPublic() instanceof EdECPublicKey;
+                case HS256 -> false;
+            };
+        }
+
+        private static Key deriveSecretKey(String secret) {
+            return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static KeyPair generateKeyPair(TokenProperties.Algorithm algorithm) {
+            return switch (algorithm) {
+                case ES256 -> Jwts.SIG.ES256.keyPair().build();
+                case EdDSA -> Jwts.SIG.EdDSA.keyPair().build();
+                case HS256 -> throw new IllegalArgumentException("HS256 does not use key pairs");
+            };
+        }
+
+        private static PublicKey parsePublicKey(String encoded) {
+            X509EncodedKeySpec keySpec = new X509EncodedKeySpec(decodePem(encoded));
+            for (String keyAlgorithm : ASYMMETRIC_KEY_ALGORITHMS) {
+                try {
+                    return KeyFactory.getInstance(keyAlgorithm).generatePublic(keySpec);
+                } catch (GeneralSecurityException ignored) {
+                    // try the next supported key type
+                }
+            }
+            throw new IllegalArgumentException("Unsupported public key, expected an EC, Ed25519 or Ed448 X.509 key");
+        }
+
+        private static PrivateKey parsePrivateKey(String encoded) {
+            PKCS8EncodedKeySpec keySpec = new PKCS8EncodedKeySpec(decodePem(encoded));
+            for (String keyAlgorithm : ASYMMETRIC_KEY_ALGORITHMS) {
+                try {
+                    return KeyFactory.getInstance(keyAlgorithm).generatePrivate(keySpec);
+                } catch (GeneralSecurityException ignored) {
+                    // try the next supported key type
+                }
+            }
+            throw new IllegalArgumentException("Unsupported private key, expected an EC, Ed25519 or Ed448 PKCS#8 key");
+        }
+
+        private static byte[] decodePem(String encoded) {
+            String base64 = encoded
+                    .replaceAll("-----(BEGIN|END) [A-Z ]+-----", "")
+                    .replaceAll("\\s", "");
+            return Base64.getDecoder().decode(base64);
+        }
+
+        private static Map<String, Object> toJwks(Map<String, PublicKey> publicKeys) {
+            List<Map<String, Object>> jwks = new ArrayList<>();
+            publicKeys.forEach((keyId, publicKey) -> jwks.add(toJwk(keyId, publicKey)));
+            return Map.of("keys", List.copyOf(jwks));
+        }
+
+        private static Map<String, Object> toJwk(String keyId, PublicKey publicKey) {
+            Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+            Map<String, Object> jwk = new LinkedHashMap<>();
+            if (publicKey instanceof ECPublicKey ecPublicKey) {
+                int fieldSize = ecPublicKey.getParams().getCurve().getField().getFieldSize();
+                int length = (fieldSize + 7) / 8;
+                jwk.put("kty", "EC");
+                jwk.put("crv", "P-" + fieldSize);
+                jwk.put("x", encoder.encodeToString(unsigned(ecPublicKey.getW().getAffineX(), length)));
+                jwk.put("y", encoder.encodeToString(unsigned(ecPublicKey.getW().getAffineY(), length)));
+                jwk.put("alg", fieldSize == 256 ? "ES256" : fieldSize == 384 ? "ES384" : "ES512");
+            } else if (publicKey instanceof EdECPublicKey edECPublicKey) {
+                String curve = edECPublicKey.getParams().getName();
+                int length = switch (curve) {
+                    case "Ed25519" -> 32;
+                    case "Ed448" -> 57;
+                    default -> throw new IllegalArgumentException("Unsupported EdDSA curve: " + curve);
+                };
+                byte[] encoded = publicKey.getEncoded();
+                // X.509 SubjectPublicKeyInfo for an EdDSA key ends with the raw key of the curve's length
+                jwk.put("kty", "OKP");
+                jwk.put("crv", curve);
+                jwk.put("x", encoder.encodeToString(Arrays.copyOfRange(encoded, encoded.length - length, encoded.length)));
+                jwk.put("alg", "EdDSA");
+            } else {
+                throw new IllegalArgumentException("Unsupported public key type: " + publicKey.getAlgorithm());
+            }
+            jwk.put("use", "sig");
+            jwk.put("kid", keyId);
+            return Collections.unmodifiableMap(jwk);
+        }
+
+        private static byte[] unsigned(BigInteger value, int length) {
+            byte[] bytes = value.toByteArray();
+            if (bytes.length == length) {
+                return bytes;
+            }
+            byte[] result = new byte[length];
+            int copy = Math.min(bytes.length, length);
+            System.arraycopy(bytes, bytes.length - copy, result, length - copy, copy);
+            return result;
+        }
+    }
+}
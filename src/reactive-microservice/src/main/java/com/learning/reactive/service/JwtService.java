@@ -1,26 +1,27 @@
 package com.learning.reactive.service;
 
+import com.learning.reactive.config.security.RoleAuthorities;
 import com.learning.reactive.data.dto.AuthenticationResponse;
+import com.learning.reactive.data.dto.TokenPrincipal;
+import com.learning.reactive.data.dto.TokenSubject;
 import com.learning.reactive.data.model.User;
 import com.learning.reactive.props.TokenProperties;
 import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.Collections;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.UUID;
 
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import reactor.core.publisher.Mono;
 
 @Service
@@ -36,118 +37,195 @@ public class JwtService {
     @Value("${app.token.refreshTokenExpirySeconds}")
     private Long refreshTokenExpirySeconds;*/
 
+    private static final String ROLE_MASK_CLAIM = "rm";
+    private static final String COMPACT_USER_ID_CLAIM = "uid";
+    private static final String COMPACT_STATUS_CLAIM = "st";
+    private static final String TOKEN_TYPE_CLAIM = "typ";
+    private static final String REFRESH_TOKEN_TYPE = "refresh";
+    private static final String FAMILY_ID_CLAIM = "fid";
+    private static final String SECURITY_EPOCH_CLAIM = "se";
+
     private final UserService userService;
     private final TokenProperties tokenProperties;
+    private final JwtKeyRing jwtKeyRing;
+    private final RefreshTokenStore refreshTokenStore;
 
-    public Mono<String> generateAccessToken(User user) {
-        return buildClaims(user)   // returns Mono<Map<String, Object>>
-                .map(claims ->
-                        constructToken(
-                                user.getUsername(),
-                                claims,
-                                Date.from(Instant.now().plus(tokenProperties.getAccessTokenExpirySeconds(), ChronoUnit.SECONDS))
-                        )
-                );
+    public String generateAccessToken(User user, List<String> roleNames) {
+        return generateAccessToken(TokenSubject.of(user, roleNames));
     }
 
-    public String generateRefreshToken(User user) {
-        return constructToken(user.getUsername(), Map.of(), Date.from(Instant.now().plus(tokenProperties.getRefreshTokenExpirySeconds(), ChronoUnit.SECONDS)));
+    public String generateAccessToken(TokenSubject subject) {
+        return constructToken(
+                subject.username(),
+                buildClaims(subject),
+                Date.from(Instant.now().plus(tokenProperties.getAccessTokenExpirySeconds(), ChronoUnit.SECONDS))
+        );
     }
 
-    public Mono<Boolean> isValidJwt(String token) {
-        return Mono.just(token)
-                .map(this::parseToken)
-                .map(claims -> !claims.getExpiration().before(new Date()))
-                .onErrorReturn(false);
+    public String generateRefreshToken(User user) {
+        return generateRefreshToken(user.getUsername(), user.getSecurityEpoch(), refreshTokenStore.issue(user.getUsername()));
     }
 
-    public String getSubjectFromToken(String token) {
-        return parseToken(token).getSubject();
+    private String generateRefreshToken(String username, int securityEpoch, RefreshTokenStore.Grant grant) {
+        return constructToken(
+                username,
+                Map.of(
+                        Claims.ID, grant.tokenId().toString(),
+                        FAMILY_ID_CLAIM, grant.familyId().toString(),
+                        TOKEN_TYPE_CLAIM, REFRESH_TOKEN_TYPE,
+                        SECURITY_EPOCH_CLAIM, securityEpoch
+                ),
+                Date.from(grant.expiresAt())
+        );
     }
 
-    public Mono<List<String>> getRolesFromToken(String token) {
-        return Mono.fromSupplier(() -> {
-            Claims claims = parseToken(token);
-            Object rolesObj = claims.get("roles");
+    /**
+     * Mints the token pair for a user whose roles are already loaded; performs no I/O.
+     */
+    public AuthenticationResponse generateAuthResponse(User user, List<String> roleNames) {
+        return generateAuthResponse(TokenSubject.of(user, roleNames));
+    }
 
-            if (rolesObj instanceof List<?>) {
-                return ((List<?>) rolesObj).stream()
-                        .map(Object::toString)
-                        .toList();
-            }
+    public AuthenticationResponse generateAuthResponse(TokenSubject subject) {
+        return generateAuthResponse(subject, refreshTokenStore.issue(subject.username()));
+    }
 
-            return Collections.emptyList();
-        });
+    private AuthenticationResponse generateAuthResponse(TokenSubject subject, RefreshTokenStore.Grant grant) {
+        return new AuthenticationResponse(
+                subject.id().toString(),
+                generateAccessToken(subject),
+                generateRefreshToken(subject.username(), subject.securityEpoch(), grant)
+        );
     }
 
-    public Mono<AuthenticationResponse> generateAuthResponse(String refreshToken) {
-        return isValidJwt(refreshToken) // Mono<Boolean>
-                .flatMap(isValid -> {
-                    if (isValid) {
-                        // Extract subject (username) from the refresh token
-                        String subject = getSubjectFromToken(refreshToken);
+    /**
+     * Verifies the signature and expiry of the token once and exposes its claims.
+     *
+     * @param token raw JWT
+     * @return the decoded principal, or empty when the token is malformed, tampered with or expired
+     */
+    public Mono<TokenPrincipal> decode(String token) {
+        return Mono.fromCallable(() -> toPrincipal(parseToken(token)))
+                .onErrorResume(e -> Mono.empty());
+    }
 
-                        // Find user reactively
-                        return userService.findByUsername(subject)
-                                .switchIfEmpty(Mono.error(new UsernameNotFoundException("User not found: " + subject)))
-                                .flatMap(user ->
-                                        generateAccessToken(user) // Mono<String>
-                                                .map(accessToken -> {
-                                                    String newRefreshToken = generateRefreshToken(user);
-                                                    return new AuthenticationResponse(
-                                                            user.getId().toString(),
-                                                            accessToken,
-                                                            newRefreshToken
-                                                    );
-                                                })
-                                );
-                    } else {
-                        return Mono.error(new BadCredentialsException("Invalid or expired refresh token"));
-                    }
-                });
+    /**
+     * Redeems a refresh token: it must carry a {@code jti} and family, and be the latest token of
+     * that family. The family is rotated, so the presented token cannot be used again. A token
+     * minted before the user's security epoch was last bumped is refused.
+     *
+     * @param refreshToken raw refresh JWT
+     * @return a new token pair, or empty when the token is invalid, expired, already used or predates rotation
+     */
+    public Mono<AuthenticationResponse> refresh(String refreshToken) {
+        return Mono.fromCallable(() -> parseToken(refreshToken))
+                .filter(claims -> REFRESH_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE_CLAIM, String.class))
+                        && claims.getId() != null && claims.get(FAMILY_ID_CLAIM, String.class) != null)
+                .onErrorResume(e -> Mono.empty())
+                .flatMap(claims -> refreshTokenStore
+                        .redeem(UUID.fromString(claims.get(FAMILY_ID_CLAIM, String.class)), UUID.fromString(claims.getId()))
+                        // Load the claim columns and role names in one round trip
+                        .flatMap(grant -> userService.findTokenSubject(claims.getSubject())
+                                .switchIfEmpty(Mono.error(new UsernameNotFoundException("User not found: " + claims.getSubject())))
+                                .filter(subject -> securityEpoch(claims) >= subject.securityEpoch())
+                                .map(subject -> generateAuthResponse(subject, grant))));
     }
 
 
     private Claims parseToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return jwtKeyRing.parser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
-    private String constructToken(String subject, Map<String, Object> claims, Date expiration) {
-        return Jwts
-                .builder()
-                .subject(subject)
-                .claims(claims)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(expiration)
-                .signWith(getSigningKey())
-                .compact();
+    private TokenPrincipal toPrincipal(Claims claims) {
+        if (REFRESH_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE_CLAIM, String.class))) {
+            throw new IllegalArgumentException("Refresh tokens cannot be used as access tokens");
+        }
+        return new TokenPrincipal(
+                claims.getSubject(),
+                userId(claims),
+                roleMask(claims),
+                securityEpoch(claims),
+                claims.getExpiration().toInstant()
+        );
+    }
+
+    /**
+     * Reads the compact {@code uid} claim, falling back to the {@code userId} of standard tokens.
+     */
+    private static String userId(Claims claims) {
+        String compact = claims.get(COMPACT_USER_ID_CLAIM, String.class);
+        return compact != null ? decodeUuid(compact).toString() : claims.get("userId", String.class);
+    }
+
+    /**
+     * Reads the {@code rm} bitmask, falling back to the role name array of tokens minted before it.
+     */
+    private static int roleMask(Claims claims) {
+        if (claims.get(ROLE_MASK_CLAIM) instanceof Number roleMask) {
+            return roleMask.intValue();
+        }
+        if (claims.get("roles") instanceof List<?> roleList) {
+            return RoleAuthorities.mask(roleList.stream().map(Object::toString).toList());
+        }
+        return 0;
     }
 
-    private SecretKey getSigningKey() {
-        return Optional.ofNullable(tokenProperties.getSecret())
-                .map(String::getBytes)
-                .map(Keys::hmacShaKeyFor)
-                .orElseThrow(() -> new IllegalArgumentException("token.secret must be configured in the application.properties file"));
+    private static int securityEpoch(Claims claims) {
+        return claims.get(SECURITY_EPOCH_CLAIM) instanceof Number securityEpoch ? securityEpoch.intValue() : 0;
     }
 
-    private Mono<Map<String, Object>> buildClaims(User user) {
+    private String constructToken(String subject, Map<String, Object> claims, Date expiration) {
+        return jwtKeyRing.sign(Jwts
+                        .builder()
+                        .subject(subject)
+                        .claims(claims)
+                        .issuedAt(new Date(System.currentTimeMillis()))
+                        .expiration(expiration))
+                .compact();
+    }
+
+    private Map<String, Object> buildClaims(TokenSubject subject) {
+        if (tokenProperties.getClaimProfile() == TokenProperties.ClaimProfile.COMPACT) {
+            return buildCompactClaims(subject);
+        }
         Map<String, Object> claims = new HashMap<>();
 
         // Core identity
-        claims.put("userId", user.getId().toString());
-        claims.put("username", user.getUsername());
+        claims.put("userId", subject.id().toString());
+        claims.put("username", subject.username());
         // Account status
-        claims.put("accountStatus", user.getAccountStatus().name());
-
-        // Add roles reactively
-        return userService.getRoleNamesForUser(user.getId())
-                .map(roleNames -> {
-                    claims.put("roles", roleNames);
-                    return claims;
-                });
+        claims.put("accountStatus", subject.accountStatus().name());
+        // Roles loaded together with the user; names for other consumers, mask for our own filter
+        claims.put("roles", subject.roleNames());
+        claims.put(ROLE_MASK_CLAIM, RoleAuthorities.mask(subject.roleNames()));
+        claims.put(SECURITY_EPOCH_CLAIM, subject.securityEpoch());
+        return claims;
+    }
+
+    /**
+     * Same information as the standard claims in roughly two thirds of the bytes: the username is
+     * already the subject, roles travel only as the mask and the status as its first letter.
+     */
+    private Map<String, Object> buildCompactClaims(TokenSubject subject) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(COMPACT_USER_ID_CLAIM, encodeUuid(subject.id()));
+        claims.put(COMPACT_STATUS_CLAIM, String.valueOf(subject.accountStatus().code()));
+        claims.put(ROLE_MASK_CLAIM, RoleAuthorities.mask(subject.roleNames()));
+        claims.put(SECURITY_EPOCH_CLAIM, subject.securityEpoch());
+        return claims;
+    }
+
+    private static String encodeUuid(UUID id) {
+        ByteBuffer bytes = ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.array());
+    }
+
+    private static UUID decodeUuid(String encoded) {
+        ByteBuffer bytes = ByteBuffer.wrap(Base64.getUrlDecoder().decode(encoded));
+        return new UUID(bytes.getLong(), bytes.getLong());
     }
 }
@@ -0,0 +1,249 @@
+package com.learning.reactive.service;
+
+import com.learning.reactive.data.model.User;
+import com.learning.reactive.props.LoginAttemptProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks failed logins in memory and decides lockouts without touching the database. Each user
+ * has one lock-free counter, seeded from {@code failed_attempts}/{@code last_failed_attempt} when
+ * the user is first loaded; changed counters are written back in one batched statement per flush,
+ * so a credential-stuffing burst costs no writes on the login path and lockouts survive restarts.
+ * A flush adds the failures counted since the previous one to the stored count rather than
+ * overwriting it, so instances failing the same user concurrently do not undo each other's counts;
+ * only a reset (a successful login, or a failure after the lock window) restarts the stored count.
+ * {@code account_locked} stays an administrative flag and is never set from here.
+ */
+@Service
+@Slf4j
+public class LoginAttemptService {
+
+    private static final String FLUSH_SQL = """
+            UPDATE users
+            SET failed_attempts = GREATEST(CASE WHEN v.reset THEN 0 ELSE COALESCE(users.failed_attempts, 0) END + v.delta, 0),
+                last_failed_attempt = GREATEST(users.last_failed_attempt, v.last_failed_attempt)
+            FROM unnest(:usernames, :resets, :deltas, :lastFailedAttempts) AS v(username, reset, delta, last_failed_attempt)
+            WHERE users.username = v.username
+            """;
+
+    private final DatabaseClient databaseClient;
+    private final LoginAttemptProperties properties;
+    private final Map<String, Attempts> attempts = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    public LoginAttemptService(DatabaseClient databaseClient, LoginAttemptProperties properties) {
+        this.databaseClient = databaseClient;
+        this.properties = properties;
+    }
+
+    /**
+     * @return whether the user is inside a lockout window; seeds the counter from the row on first sight
+     */
+    public boolean isLocked(User user) {
+        long now = System.currentTimeMillis();
+        Attempts counter = attempts.computeIfAbsent(user.getUsername(), username -> Attempts.seed(user));
+        counter.lastSeen = now;
+        return counter.isLocked(properties.getMaxFailedAttempts(), lockDurationMillis(), now);
+    }
+
+    /**
+     * Counts a failed login for a user already loaded by {@link #isLocked(User)}; unknown usernames
+     * are ignored so guessing usernames cannot grow the map.
+     */
+    public void recordFailure(String username) {
+        Attempts counter = attempts.get(username);
+        if (counter != null) {
+            counter.fail(lockDurationMillis(), System.currentTimeMillis());
+            dirty.add(username);
+        }
+    }
+
+    /**
+     * Clears the counter after a successful login; a user with no failures costs no write.
+     */
+    public void recordSuccess(String username) {
+        Attempts counter = attempts.get(username);
+        if (counter != null && counter.reset()) {
+            dirty.add(username);
+        }
+    }
+
+    /**
+     * Writes every counter changed since the last flush in a single statement. Clean counters with
+     * no live lockout are dropped after a minute unseen, so memory tracks only recent logins.
+     */
+    @Scheduled(fixedDelayString = "${app.login.flushIntervalSeconds:5}", timeUnit = TimeUnit.SECONDS)
+    public Mono<Void> flush() {
+        List<String> usernames = new ArrayList<>();
+        List<Attempts.Snapshot> snapshots = new ArrayList<>();
+        for (String username : dirty) {
+            dirty.remove(username); // a failure racing this flush re-marks the user for the next one
+            Attempts counter = attempts.get(username);
+            if (counter == null) {
+                continue;
+            }
+            usernames.add(username);
+            snapshots.add(counter.snapshot());
+        }
+        evictIdle();
+        if (usernames.isEmpty()) {
+            return Mono.empty();
+        }
+        return databaseClient.sql(FLUSH_SQL)
+                .bind("usernames", usernames.toArray(String[]::new))
+                .bind("resets", snapshots.stream().map(Attempts.Snapshot::reset).toArray(Boolean[]::new))
+                .bind("deltas", snapshots.stream().map(Attempts.Snapshot::delta).toArray(Integer[]::new))
+                .bind("lastFailedAttempts", snapshots.stream().map(Attempts.Snapshot::lastFailedAttempt).toArray(LocalDateTime[]::new))
+                .then()
+                .doOnSuccess(ignored -> snapshots.forEach(Attempts.Snapshot::commit))
+                .doOnError(e -> {
+                    log.error("Failed to persist login attempts for {} users, retrying on next flush", usernames.size(), e);
+                    dirty.addAll(usernames);
+                })
+                .onErrorComplete();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush().block(Duration.ofSeconds(5));
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        attempts.entrySet().removeIf(entry -> !dirty.contains(entry.getKey())
+                && entry.getValue().isIdle(lockDurationMillis(), now));
+    }
+
+    private long lockDurationMillis() {
+        return TimeUnit.SECONDS.toMillis(properties.getLockDurationSeconds());
+    }
+
+    /**
+     * Failure count and last failure time packed into one {@link AtomicLong} so both change in a
+     * single CAS: the high 16 bits hold the count, the low 48 bits the epoch millis. Resets are
+     * counted separately; a flush compares both against what it last wrote to derive its delta.
+     */
+    private static final class Attempts {
+
+        private static final int TIME_BITS = 48;
+        private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+        private static final int MAX_FAILURES = 0xFFFF;
+        private static final long IDLE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+        private final AtomicLong state;
+
+        /** Times the count restarted from zero */
+        private final AtomicInteger resets = new AtomicInteger();
+
+        /** Failure count and reset count the table last acknowledged; written by flushes only */
+        private volatile int flushedFailures;
+        private volatile int flushedResets;
+
+        /** Last time the user was loaded; keeps the counter alive while a login is in flight */
+        private volatile long lastSeen;
+
+        private Attempts(long state) {
+            this.state = new AtomicLong(state);
+            this.flushedFailures = failures(state);
+        }
+
+        static Attempts seed(User user) {
+            long lastFailure = user.getLastFailedAttempt() == null ? 0
+                    : user.getLastFailedAttempt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            return new Attempts(pack(user.getFailedAttempts(), lastFailure));
+        }
+
+        boolean isLocked(int maxFailures, long lockDurationMillis, long now) {
+            long current = state.get();
+            return failures(current) >= maxFailures && now - (current & TIME_MASK) < lockDurationMillis;
+        }
+
+        void fail(long lockDurationMillis, long now) {
+            long previous = state.getAndUpdate(current -> {
+                // a failure after the lock window has passed starts a fresh count
+                int failures = now - (current & TIME_MASK) >= lockDurationMillis ? 0 : failures(current);
+                return pack(failures + 1, now);
+            });
+            if (failures(previous) > 0 && now - (previous & TIME_MASK) >= lockDurationMillis) {
+                resets.incrementAndGet();
+            }
+        }
+
+        /**
+         * @return whether there was anything to clear
+         */
+        boolean reset() {
+            long current = state.get();
+            while (failures(current) > 0) {
+                if (state.compareAndSet(current, pack(0, current & TIME_MASK))) {
+                    resets.incrementAndGet();
+                    return true;
+                }
+                current = state.get();
+            }
+            return false;
+        }
+
+        boolean isIdle(long lockDurationMillis, long now) {
+            long current = state.get();
+            return now - lastSeen >= IDLE_MILLIS
+                    && (failures(current) == 0 || now - (current & TIME_MASK) >= lockDurationMillis);
+        }
+
+        /**
+         * What to write for this counter: the current count when it restarted since the last
+         * acknowledged flush, otherwise only the failures added since. A reset landing between the
+         * two reads can yield a negative delta, which the statement clamps and the next flush,
+         * seeing the reset, overwrites.
+         */
+        Snapshot snapshot() {
+            int resetCount = resets.get();
+            long current = state.get();
+            int failures = failures(current);
+            boolean reset = resetCount != flushedResets;
+            return new Snapshot(this, reset, reset ? failures : failures - flushedFailures,
+                    lastFailure(current), failures, resetCount);
+        }
+
+        static int failures(long state) {
+            return (int) (state >>> TIME_BITS);
+        }
+
+        static LocalDateTime lastFailure(long state) {
+            long millis = state & TIME_MASK;
+            return millis == 0 ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+        }
+
+        private static long pack(int failures, long epochMillis) {
+            return ((long) Math.min(Math.max(failures, 0), MAX_FAILURES) << TIME_BITS) | (epochMillis & TIME_MASK);
+        }
+
+        record Snapshot(Attempts counter, boolean reset, int delta, LocalDateTime lastFailedAttempt,
+                        int failures, int resetCount) {
+
+            /** Records this snapshot as written, so the next flush only sends what changed after it */
+            void commit() {
+                counter.flushedFailures = failures;
+                counter.flushedResets = resetCount;
+            }
+        }
+    }
+}
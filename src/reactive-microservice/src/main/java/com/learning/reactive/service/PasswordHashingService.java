@@ -0,0 +1,104 @@
+package com.learning.reactive.service;
+
+import com.learning.reactive.props.PasswordProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs password hashing on a dedicated, bounded pool so BCrypt never executes on a reactor-netty event loop.
+ * When every hashing thread is busy and the queue is full, work is rejected with a
+ * {@link RejectedExecutionException}, which is answered with 503 and {@code Retry-After}.
+ */
+@Service
+@Slf4j
+public class PasswordHashingService {
+
+    private final Scheduler scheduler;
+    private final PasswordEncoder timedEncoder;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder, PasswordProperties passwordProperties, MeterRegistry meterRegistry) {
+        int threads = passwordProperties.getHashingThreads() > 0
+                ? passwordProperties.getHashingThreads()
+                : Runtime.getRuntime().availableProcessors();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hash-");
+        threadFactory.setDaemon(true);
+        Counter rejected = Counter.builder("auth.password.hashing.rejected").register(meterRegistry);
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(passwordProperties.getHashingQueueCapacity()),
+                threadFactory,
+                (task, pool) -> {
+                    rejected.increment();
+                    throw new RejectedExecutionException("Password hashing pool saturated");
+                });
+        this.scheduler = Schedulers.fromExecutorService(executor, "password-hashing");
+
+        Gauge.builder("auth.password.hashing.queue.depth", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+        Gauge.builder("auth.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        this.timedEncoder = new TimedPasswordEncoder(passwordEncoder,
+                Timer.builder("auth.password.hash").tag("operation", "encode").register(meterRegistry),
+                Timer.builder("auth.password.hash").tag("operation", "matches").register(meterRegistry));
+    }
+
+    public Mono<String> encode(CharSequence rawPassword) {
+        return Mono.fromCallable(() -> timedEncoder.encode(rawPassword))
+                .subscribeOn(scheduler);
+    }
+
+    public Mono<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return Mono.fromCallable(() -> timedEncoder.matches(rawPassword, encodedPassword))
+                .subscribeOn(scheduler);
+    }
+
+    /**
+     * @return the scheduler backing the hashing pool, for components that hash inside their own pipeline
+     */
+    public Scheduler scheduler() {
+        return scheduler;
+    }
+
+    /**
+     * @return the password encoder decorated with hash latency timers; callers must already be on {@link #scheduler()}
+     */
+    public PasswordEncoder timedEncoder() {
+        return timedEncoder;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.dispose();
+    }
+
+    private record TimedPasswordEncoder(PasswordEncoder delegate, Timer encodeTimer, Timer matchesTimer) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return encodeTimer.record(() -> delegate.encode(rawPassword));
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return Boolean.TRUE.equals(matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return delegate.upgradeEncoding(encodedPassword);
+        }
+    }
+}
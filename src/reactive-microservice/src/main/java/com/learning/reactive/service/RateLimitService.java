@@ -0,0 +1,135 @@
+package com.learning.reactive.service;
+
+import com.learning.reactive.props.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the configured rate limits: one per route keyed by client address, enforced by
+ * {@link com.learning.reactive.web.filter.RateLimitFilter}, and one keyed by username, enforced
+ * by {@link AuthService} once the login body has been read. Behind a load balancer the client
+ * address comes from {@code X-Forwarded-For}, which is only read when the connection comes from
+ * one of the configured trusted proxies.
+ */
+@Service
+@Slf4j
+public class RateLimitService {
+
+    private final boolean enabled;
+    private final List<RouteLimit> routes;
+    private final List<IpAddressMatcher> trustedProxies;
+    private final RateLimiter<String> usernameLimiter;
+    private final Counter addressRejections;
+    private final Counter usernameRejections;
+
+    public RateLimitService(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.routes = properties.getRoutes().stream()
+                .map(route -> new RouteLimit(PathPatternParser.defaultInstance.parse(route.getPattern()),
+                        new RateLimiter<>(route.getCapacity(), route.getRefillPerSecond(), properties.getMaxKeys())))
+                .toList();
+        this.trustedProxies = properties.getTrustedProxies().stream().map(IpAddressMatcher::new).toList();
+        this.usernameLimiter = new RateLimiter<>(properties.getUsername().getCapacity(),
+                properties.getUsername().getRefillPerSecond(), properties.getMaxKeys());
+        this.addressRejections = Counter.builder("auth.rate.limited").tag("key", "address").register(meterRegistry);
+        this.usernameRejections = Counter.builder("auth.rate.limited").tag("key", "username").register(meterRegistry);
+    }
+
+    /**
+     * Resolves the address to limit a request by. When the connection comes from a trusted proxy,
+     * {@code X-Forwarded-For} is walked from the right, skipping further trusted proxies, and the
+     * first other entry is the client; entries left of it may be forged by the client and are
+     * never used.
+     *
+     * @param forwardedFor the {@code X-Forwarded-For} header values, in order
+     * @return the client address, or {@code null} when there is no remote address
+     */
+    public String resolveClientAddress(InetAddress remoteAddress, List<String> forwardedFor) {
+        if (remoteAddress == null) {
+            return null;
+        }
+        String client = remoteAddress.getHostAddress();
+        if (!isTrustedProxy(client)) {
+            return client;
+        }
+        List<String> hops = forwardedFor.stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(String::trim)
+                .filter(hop -> !hop.isEmpty())
+                .toList();
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            client = hops.get(i);
+            if (!isTrustedProxy(client)) {
+                return client;
+            }
+        }
+        return client;
+    }
+
+    /**
+     * @return 0 when admitted or no route matches, otherwise nanoseconds until retry
+     */
+    public long tryAcquireForAddress(PathContainer path, String address) {
+        if (!enabled || address == null) {
+            return 0;
+        }
+        for (RouteLimit route : routes) {
+            if (route.pattern().matches(path)) {
+                long waitNanos = route.limiter().tryAcquire(address);
+                if (waitNanos > 0) {
+                    addressRejections.increment();
+                }
+                return waitNanos;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return 0 when admitted, otherwise nanoseconds until retry
+     */
+    public long tryAcquireForUsername(String username) {
+        if (!enabled || username == null) {
+            return 0;
+        }
+        long waitNanos = usernameLimiter.tryAcquire(username);
+        if (waitNanos > 0) {
+            usernameRejections.increment();
+        }
+        return waitNanos;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        for (IpAddressMatcher trustedProxy : trustedProxies) {
+            try {
+                if (trustedProxy.matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                return false; // not an IP literal, so not one of our proxies
+            }
+        }
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${app.rateLimit.evictionIntervalSeconds:60}", timeUnit = TimeUnit.SECONDS)
+    public void evictIdle() {
+        routes.forEach(route -> route.limiter().evictIdle());
+        usernameLimiter.evictIdle();
+    }
+
+    private record RouteLimit(PathPattern pattern, RateLimiter<String> limiter) {
+    }
+}
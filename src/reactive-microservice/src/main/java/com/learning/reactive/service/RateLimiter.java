@@ -0,0 +1,104 @@
+package com.learning.reactive.service;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per key, implemented as GCRA: each key holds only its theoretical arrival time in
+ * an {@link AtomicLong}, so an admission is one map lookup and one CAS with no locks or timers.
+ * At most {@code maxKeys} keys are tracked. A new key arriving at a full map first drops keys
+ * whose bucket has refilled and, if none have, the tenth of keys closest to refilled, so every
+ * key keeps its own bucket and an evicted key loses the least credit.
+ *
+ * @param <K> key type, e.g. a remote address or a username
+ */
+public class RateLimiter<K> {
+
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+    private final Map<K, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    public RateLimiter(int capacity, double refillPerSecond, int maxKeys) {
+        this(capacity, refillPerSecond, maxKeys, System::nanoTime);
+    }
+
+    RateLimiter(int capacity, double refillPerSecond, int maxKeys, LongSupplier nanoClock) {
+        if (capacity < 1 || refillPerSecond <= 0 || maxKeys < 1) {
+            throw new IllegalArgumentException("capacity and maxKeys must be >= 1 and refillPerSecond > 0");
+        }
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+        this.burstNanos = emissionIntervalNanos * capacity;
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return 0 when the request is admitted, otherwise nanoseconds until it would be
+     */
+    public long tryAcquire(K key) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = bucket(key, now);
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + emissionIntervalNanos;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops every key whose bucket is full again; such a key behaves identically when recreated.
+     */
+    public void evictIdle() {
+        long now = nanoClock.getAsLong();
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private AtomicLong bucket(K key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        // one caller makes room, the others insert meanwhile and briefly overshoot maxKeys
+        if (buckets.size() >= maxKeys && evicting.compareAndSet(false, true)) {
+            try {
+                makeRoom();
+            } finally {
+                evicting.set(false);
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    private void makeRoom() {
+        evictIdle();
+        if (buckets.size() < maxKeys) {
+            return;
+        }
+        // the earliest arrival times belong to the buckets closest to full
+        long[] arrivals = buckets.values().stream().mapToLong(AtomicLong::get).toArray();
+        if (arrivals.length == 0) {
+            return;
+        }
+        Arrays.sort(arrivals);
+        long threshold = arrivals[Math.max(1, arrivals.length / 10) - 1];
+        buckets.values().removeIf(bucket -> bucket.get() - threshold <= 0);
+    }
+}
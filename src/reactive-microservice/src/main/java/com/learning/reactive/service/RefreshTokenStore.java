@@ -0,0 +1,423 @@
+package com.learning.reactive.service;
+
+import com.learning.reactive.props.TokenProperties;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refresh-token families kept in memory. Every login starts a family and every refresh rotates
+ * it to a new {@code jti}; only the latest token of a family is redeemable, and presenting an
+ * older one revokes the whole family, so a leaked refresh token is good for one use at most and
+ * its replay also cuts off whoever redeemed it first.
+ * <p>
+ * {@code refresh_token_families} decides every redemption, so one-time use holds across any
+ * number of instances: a rotation is a single conditional update that only succeeds while the
+ * presented token is the family's current one, and when it matches no row the row is read back
+ * to tell a replay, which revokes the family in the table at once, from an unknown, expired or
+ * revoked family, which is simply refused. A family known to be revoked is refused from memory
+ * without a round trip. Logins stay free of I/O: issued families, and those revoked by the
+ * per-user limit, are inserted in one batched statement per flush, and a family redeemed before
+ * its flush is inserted first. A family issued on another instance and not flushed yet is refused,
+ * which surfaces as a rejected refresh and a fresh login.
+ * <p>
+ * Each user holds at most {@code maxFamiliesPerUser} live families; a further login revokes the
+ * one closest to expiry, which keeps memory bounded by users rather than by logins. Families
+ * written by other instances are picked up by a periodic resync; revocation is never undone by
+ * a write from another instance.
+ */
+@Service
+@Slf4j
+public class RefreshTokenStore {
+
+    private static final String COLUMNS = "id, username, current_token_id, expires_at, revoked";
+
+    private static final String LOAD_SQL = "SELECT " + COLUMNS
+            + " FROM refresh_token_families WHERE NOT revoked AND expires_at > :now";
+
+    private static final String RESYNC_SQL = "SELECT " + COLUMNS
+            + " FROM refresh_token_families WHERE updated_at > now() - make_interval(secs => :lookbackSeconds)";
+
+    private static final String FIND_SQL = "SELECT " + COLUMNS + " FROM refresh_token_families WHERE id = :id";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO refresh_token_families (id, username, current_token_id, expires_at, revoked)
+            VALUES (:id, :username, :tokenId, :expiresAt, false)
+            ON CONFLICT (id) DO NOTHING
+            """;
+
+    private static final String ROTATE_SQL = """
+            UPDATE refresh_token_families SET current_token_id = :next, expires_at = :expiresAt, updated_at = now()
+            WHERE id = :id AND current_token_id = :current AND NOT revoked AND expires_at > :now
+            """;
+
+    private static final String REVOKE_SQL =
+            "UPDATE refresh_token_families SET revoked = true, updated_at = now() WHERE id = :id";
+
+    /** Rotations are written by {@link #redeem} alone, so a flush never moves a family's token */
+    private static final String FLUSH_SQL = """
+            INSERT INTO refresh_token_families (id, username, current_token_id, expires_at, revoked)
+            SELECT * FROM unnest(:ids, :usernames, :tokenIds, :expiresAt, :revoked)
+            ON CONFLICT (id) DO UPDATE SET revoked = refresh_token_families.revoked OR EXCLUDED.revoked,
+                updated_at = now()
+            """;
+
+    private static final String PURGE_SQL = "DELETE FROM refresh_token_families WHERE revoked OR expires_at <= :now";
+
+    /** Extra seconds each resync looks back, covering flushes that committed while the last one ran */
+    private static final long RESYNC_OVERLAP_SECONDS = 30;
+
+    private final DatabaseClient databaseClient;
+    private final TokenProperties tokenProperties;
+    private final Map<UUID, Family> families = new ConcurrentHashMap<>();
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    /** Family ids per username; each set is only read and written inside {@code compute} */
+    private final Map<String, Set<UUID>> familiesByUser = new ConcurrentHashMap<>();
+    private volatile long syncedAtMillis;
+
+    /** Completes once the persisted families are in memory; a failed load is retried by the next caller */
+    private final Mono<Void> loaded = Mono.defer(this::load)
+            .cache(value -> Duration.ZERO, error -> Duration.ZERO, () -> Duration.ofMillis(Long.MAX_VALUE));
+
+    public RefreshTokenStore(DatabaseClient databaseClient, TokenProperties tokenProperties) {
+        this.databaseClient = databaseClient;
+        this.tokenProperties = tokenProperties;
+    }
+
+    @PostConstruct
+    void warmUp() {
+        loaded.subscribe(null, e -> log.error("Loading refresh-token families failed, retrying on first refresh", e));
+    }
+
+    /**
+     * Starts a new family for a login, revoking the user's oldest one beyond the per-user limit;
+     * touches no I/O.
+     */
+    public Grant issue(String username) {
+        UUID familyId = UUID.randomUUID();
+        Family family = new Family(username, UUID.randomUUID(), expiry(System.currentTimeMillis()));
+        families.put(familyId, family);
+        dirty.add(familyId);
+        track(username, familyId);
+        return new Grant(familyId, family.issuedTokenId, Instant.ofEpochMilli(family.issuedExpiresAtMillis));
+    }
+
+    /**
+     * Rotates the family to a new token id in the table if {@code tokenId} is its current one; any
+     * other id of a live family is a replay and revokes it. A failed statement refuses the token.
+     *
+     * @return the grant for the replacement token, or empty when the token is unknown, expired or already used
+     */
+    public Mono<Grant> redeem(UUID familyId, UUID tokenId) {
+        return loaded
+                .then(Mono.defer(() -> {
+                    Family family = families.get(familyId);
+                    long now = System.currentTimeMillis();
+                    if (family != null && family.revoked) {
+                        return Mono.empty();
+                    }
+                    UUID next = UUID.randomUUID();
+                    long expiresAtMillis = expiry(now);
+                    return insertIssued(familyId, family)
+                            .then(databaseClient.sql(ROTATE_SQL)
+                                    .bind("next", next)
+                                    .bind("expiresAt", toLocalDateTime(expiresAtMillis))
+                                    .bind("id", familyId)
+                                    .bind("current", tokenId)
+                                    .bind("now", toLocalDateTime(now))
+                                    .fetch()
+                                    .rowsUpdated())
+                            .flatMap(rotated -> rotated > 0
+                                    ? Mono.just(rotated(familyId, next, expiresAtMillis))
+                                    : refuse(familyId, tokenId, now));
+                }))
+                .doOnError(e -> log.error("Redeeming a refresh token of family {} failed", familyId, e))
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    /**
+     * Inserts every family issued since the last flush and marks every family revoked since then,
+     * in a single statement. Expired families, and revoked ones already written, are dropped from memory.
+     */
+    @Scheduled(fixedDelayString = "${app.token.refreshStore.flushIntervalSeconds:5}", timeUnit = TimeUnit.SECONDS)
+    public Mono<Void> flush() {
+        List<UUID> ids = new ArrayList<>();
+        List<String> usernames = new ArrayList<>();
+        List<UUID> tokenIds = new ArrayList<>();
+        List<LocalDateTime> expiresAt = new ArrayList<>();
+        List<Boolean> revoked = new ArrayList<>();
+        evictInactive(); // before collecting, so a family is only dropped once its last write went through
+        for (UUID familyId : dirty) {
+            dirty.remove(familyId); // a rotation racing this flush re-marks the family for the next one
+            Family family = families.get(familyId);
+            if (family == null) {
+                continue;
+            }
+            ids.add(familyId);
+            usernames.add(family.username);
+            tokenIds.add(family.issuedTokenId);
+            expiresAt.add(toLocalDateTime(family.issuedExpiresAtMillis));
+            revoked.add(family.revoked);
+        }
+        if (ids.isEmpty()) {
+            return Mono.empty();
+        }
+        return databaseClient.sql(FLUSH_SQL)
+                .bind("ids", ids.toArray(UUID[]::new))
+                .bind("usernames", usernames.toArray(String[]::new))
+                .bind("tokenIds", tokenIds.toArray(UUID[]::new))
+                .bind("expiresAt", expiresAt.toArray(LocalDateTime[]::new))
+                .bind("revoked", revoked.toArray(Boolean[]::new))
+                .then()
+                .doOnError(e -> {
+                    log.error("Failed to persist {} refresh-token families, retrying on next flush", ids.size(), e);
+                    dirty.addAll(ids);
+                })
+                .onErrorComplete();
+    }
+
+    /**
+     * Merges the families written since the last resync, by this or any other instance.
+     */
+    @Scheduled(fixedDelayString = "${app.token.refreshStore.resyncIntervalSeconds:60}",
+            initialDelayString = "${app.token.refreshStore.resyncIntervalSeconds:60}", timeUnit = TimeUnit.SECONDS)
+    public Mono<Void> resync() {
+        return loaded.then(Mono.defer(() -> {
+            long startedAt = System.currentTimeMillis();
+            long lookbackSeconds = TimeUnit.MILLISECONDS.toSeconds(startedAt - syncedAtMillis) + RESYNC_OVERLAP_SECONDS;
+            return databaseClient.sql(RESYNC_SQL)
+                    .bind("lookbackSeconds", lookbackSeconds)
+                    .map(RefreshTokenStore::toPersistedFamily)
+                    .all()
+                    .doOnNext(this::merge)
+                    .count()
+                    .doOnNext(count -> {
+                        syncedAtMillis = startedAt;
+                        log.debug("Resynced {} refresh-token families", count);
+                    });
+        }))
+                .doOnError(e -> log.error("Refresh-token family resync failed, retrying on next resync", e))
+                .onErrorComplete()
+                .then();
+    }
+
+    @Scheduled(fixedDelayString = "${app.token.refreshStore.purgeIntervalSeconds:3600}", timeUnit = TimeUnit.SECONDS)
+    public Mono<Void> purge() {
+        return databaseClient.sql(PURGE_SQL)
+                .bind("now", LocalDateTime.now())
+                .fetch()
+                .rowsUpdated()
+                .doOnNext(deleted -> log.debug("Purged {} refresh-token families", deleted))
+                .doOnError(e -> log.error("Purging refresh-token families failed", e))
+                .onErrorComplete()
+                .then();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush().block(Duration.ofSeconds(5));
+    }
+
+    /**
+     * Applies a persisted family: revocations always win, an unknown live family is added, and a
+     * known one this instance has not changed since its last flush takes the persisted expiry when
+     * that is later, i.e. the family was rotated more recently elsewhere.
+     */
+    void merge(PersistedFamily persisted) {
+        Family current = families.get(persisted.id());
+        if (persisted.revoked()) {
+            if (current != null) {
+                current.revoked = true;
+            }
+            return;
+        }
+        if (persisted.expiresAtMillis() <= System.currentTimeMillis()) {
+            return;
+        }
+        if (current == null) {
+            Family family = new Family(persisted.username(), persisted.tokenId(), persisted.expiresAtMillis());
+            if (families.putIfAbsent(persisted.id(), family) == null) {
+                track(persisted.username(), persisted.id());
+            }
+            return;
+        }
+        if (!dirty.contains(persisted.id()) && persisted.expiresAtMillis() > current.expiresAtMillis) {
+            current.expiresAtMillis = persisted.expiresAtMillis();
+        }
+    }
+
+    private Mono<Void> load() {
+        syncedAtMillis = System.currentTimeMillis();
+        return databaseClient.sql(LOAD_SQL)
+                .bind("now", LocalDateTime.now())
+                .map(RefreshTokenStore::toPersistedFamily)
+                .all()
+                // families issued while loading are newer than their rows
+                .doOnNext(this::merge)
+                .count()
+                .doOnNext(count -> log.info("Loaded {} refresh-token families", count))
+                .then();
+    }
+
+    /**
+     * Inserts a family issued here but not flushed yet, so the rotation has a row to update.
+     */
+    private Mono<Void> insertIssued(UUID familyId, Family family) {
+        if (family == null || !dirty.contains(familyId)) {
+            return Mono.empty();
+        }
+        return databaseClient.sql(INSERT_SQL)
+                .bind("id", familyId)
+                .bind("username", family.username)
+                .bind("tokenId", family.issuedTokenId)
+                .bind("expiresAt", toLocalDateTime(family.issuedExpiresAtMillis))
+                .then();
+    }
+
+    private Grant rotated(UUID familyId, UUID next, long expiresAtMillis) {
+        Family family = families.get(familyId);
+        if (family != null) {
+            family.expiresAtMillis = expiresAtMillis;
+        }
+        return new Grant(familyId, next, Instant.ofEpochMilli(expiresAtMillis));
+    }
+
+    /**
+     * Reads back the row a rotation did not match. A live family whose current token differs was
+     * presented an earlier token, or the same token raced by a second caller, and is revoked.
+     */
+    private Mono<Grant> refuse(UUID familyId, UUID tokenId, long now) {
+        return databaseClient.sql(FIND_SQL)
+                .bind("id", familyId)
+                .map(RefreshTokenStore::toPersistedFamily)
+                .one()
+                .doOnNext(this::merge)
+                .filter(persisted -> !persisted.revoked() && persisted.expiresAtMillis() > now
+                        && !persisted.tokenId().equals(tokenId))
+                .flatMap(persisted -> {
+                    Family family = families.get(familyId);
+                    if (family != null) {
+                        family.revoked = true;
+                        dirty.add(familyId); // the next flush retries the revocation should the statement fail
+                    }
+                    log.warn("Refresh token reuse detected for user {}, revoked token family {}",
+                            persisted.username(), familyId);
+                    return databaseClient.sql(REVOKE_SQL)
+                            .bind("id", familyId)
+                            .then();
+                })
+                .then(Mono.empty());
+    }
+
+    /**
+     * Adds the family to its user's set and revokes the families closest to expiry while the user
+     * holds more than {@code maxFamiliesPerUser} live ones.
+     */
+    private void track(String username, UUID familyId) {
+        int maxFamiliesPerUser = tokenProperties.getRefreshStore().getMaxFamiliesPerUser();
+        familiesByUser.compute(username, (user, familyIds) -> {
+            Set<UUID> userFamilies = familyIds != null ? familyIds : new HashSet<>();
+            userFamilies.add(familyId);
+            long now = System.currentTimeMillis();
+            List<Map.Entry<UUID, Family>> live = new ArrayList<>();
+            for (UUID id : userFamilies) {
+                Family family = families.get(id);
+                if (family != null && !family.revoked && family.expiresAtMillis > now) {
+                    live.add(Map.entry(id, family));
+                }
+            }
+            if (live.size() > maxFamiliesPerUser) {
+                live.sort(Comparator.comparingLong(entry -> entry.getValue().expiresAtMillis));
+                for (Map.Entry<UUID, Family> entry : live.subList(0, live.size() - maxFamiliesPerUser)) {
+                    entry.getValue().revoked = true;
+                    dirty.add(entry.getKey());
+                }
+                log.debug("User {} exceeded {} refresh-token families, revoked the oldest", user, maxFamiliesPerUser);
+            }
+            return userFamilies;
+        });
+    }
+
+    private void untrack(String username, UUID familyId) {
+        familiesByUser.computeIfPresent(username, (user, familyIds) -> {
+            familyIds.remove(familyId);
+            return familyIds.isEmpty() ? null : familyIds;
+        });
+    }
+
+    private void evictInactive() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<UUID, Family> entry : families.entrySet()) {
+            Family family = entry.getValue();
+            if (!dirty.contains(entry.getKey()) && (family.revoked || family.expiresAtMillis <= now)
+                    && families.remove(entry.getKey(), family)) {
+                untrack(family.username, entry.getKey());
+            }
+        }
+    }
+
+    private long expiry(long nowMillis) {
+        return nowMillis + TimeUnit.SECONDS.toMillis(tokenProperties.getRefreshTokenExpirySeconds());
+    }
+
+    private static PersistedFamily toPersistedFamily(Readable row) {
+        return new PersistedFamily(
+                row.get("id", UUID.class),
+                row.get("username", String.class),
+                row.get("current_token_id", UUID.class),
+                row.get("expires_at", LocalDateTime.class).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                Boolean.TRUE.equals(row.get("revoked", Boolean.class)));
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    /**
+     * Identifies a refresh token to mint: its family ({@code fid}), its own id ({@code jti}) and expiry.
+     */
+    public record Grant(UUID familyId, UUID tokenId, Instant expiresAt) {
+    }
+
+    /**
+     * A row of {@code refresh_token_families}.
+     */
+    record PersistedFamily(UUID id, String username, UUID tokenId, long expiresAtMillis, boolean revoked) {
+    }
+
+    private static final class Family {
+
+        private final String username;
+        /** Token and expiry the family's row is created with; later rotations live in the table */
+        private final UUID issuedTokenId;
+        private final long issuedExpiresAtMillis;
+        private volatile long expiresAtMillis;
+        private volatile boolean revoked;
+
+        private Family(String username, UUID issuedTokenId, long expiresAtMillis) {
+            this.username = username;
+            this.issuedTokenId = issuedTokenId;
+            this.issuedExpiresAtMillis = expiresAtMillis;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.learning.reactive.service;
+
+import com.learning.reactive.props.ObservabilityProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sampled per-phase timers for authenticated requests, published as {@code http.server.phase}
+ * tagged by phase. Unsampled requests pay one random draw and nothing else.
+ */
+@Component
+public class RequestPhaseTimers {
+
+    public enum Phase {
+        /** Signature and expiry verification of the bearer token */
+        DECODE,
+        /** Building granted authorities from the token claims */
+        AUTHORITIES,
+        /** Creating the authentication and writing it to the Reactor context */
+        CONTEXT,
+        /** Everything downstream of the filter until the response is committed: security rules and controller */
+        HANDLER,
+        /** From response commit until the body has been written */
+        WRITE
+    }
+
+    private final double sampleRate;
+    private final Map<Phase, Timer> timers = new EnumMap<>(Phase.class);
+
+    public RequestPhaseTimers(ObservabilityProperties observabilityProperties, MeterRegistry meterRegistry) {
+        this.sampleRate = observabilityProperties.getPhaseSampleRate();
+        for (Phase phase : Phase.values()) {
+            timers.put(phase, Timer.builder("http.server.phase")
+                    .description("Sampled time spent per phase of an authenticated request")
+                    .tag("phase", phase.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * @return whether the current request should be timed
+     */
+    public boolean sample() {
+        return sampleRate > 0 && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    public void record(Phase phase, long startNanos, long endNanos) {
+        timers.get(phase).record(endNanos - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
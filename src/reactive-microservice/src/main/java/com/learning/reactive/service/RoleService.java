@@ -1,18 +1,29 @@
 package com.learning.reactive.service;
 
+import com.learning.reactive.data.dto.UserRoleName;
 import com.learning.reactive.data.model.Role;
 import com.learning.reactive.data.repository.RoleRepository;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Serves role lookups from an immutable in-memory catalog of the (tiny, effectively static) roles table.
+ * The catalog is replaced wholesale on every refresh, so readers never lock; until the first load
+ * completes, lookups fall back to the database.
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
@@ -20,6 +31,8 @@ public class RoleService {
 
     private final RoleRepository roleRepository;
 
+    private volatile RoleCatalog catalog = RoleCatalog.EMPTY;
+
     public Flux<Role> getByRoleNames(
             @NotNull(message = "Roles are required")
             @Size(min = 1, message = "At least one role must be specified")
@@ -30,18 +43,89 @@ public class RoleService {
     }
 
     Mono<Role> findByName(String name) {
-        return roleRepository.findByName(name);
+        RoleCatalog current = catalog;
+        return current.loaded() ? Mono.justOrEmpty(current.byName().get(name)) : roleRepository.findByName(name);
     }
 
     public Mono<Role> findById(UUID roleId) {
-        return roleRepository.findById(roleId);
+        RoleCatalog current = catalog;
+        return current.loaded() ? Mono.justOrEmpty(current.byId().get(roleId)) : roleRepository.findById(roleId);
+    }
+
+    /**
+     * Roles of a user resolved with a single user_roles/roles join.
+     */
+    public Flux<Role> findAllByUserId(UUID userId) {
+        return roleRepository.findAllByUserId(userId);
+    }
+
+    public Flux<String> findNamesByUserId(UUID userId) {
+        return roleRepository.findNamesByUserId(userId);
+    }
+
+    /**
+     * Role names for many users in one statement, for list endpoints.
+     */
+    public Mono<Map<UUID, Collection<String>>> findNamesByUserIds(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return roleRepository.findNamesByUserIds(userIds)
+                .collectMultimap(UserRoleName::userId, UserRoleName::roleName);
+    }
+
+    /**
+     * Reloads the catalog from the roles table; runs at startup and then on a fixed delay.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.roles.refreshIntervalSeconds:300}", timeUnit = TimeUnit.SECONDS)
+    public Mono<Void> refresh() {
+        return load()
+                .doOnError(e -> log.error("Role catalog refresh failed, keeping the previous catalog", e))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    /**
+     * Forces a reload, e.g. after roles were changed in the table directly; unlike the scheduled
+     * refresh, a failure is reported to the caller.
+     *
+     * @return the number of roles now in the catalog
+     */
+    public Mono<Integer> invalidate() {
+        return load();
+    }
+
+    private Mono<Integer> load() {
+        return roleRepository.findAll()
+                .collectList()
+                .map(roles -> {
+                    catalog = RoleCatalog.of(roles);
+                    log.debug("Role catalog refreshed with {} roles", roles.size());
+                    return roles.size();
+                });
+    }
+
+    private record RoleCatalog(boolean loaded, Map<UUID, Role> byId, Map<String, Role> byName) {
+
+        static final RoleCatalog EMPTY = new RoleCatalog(false, Map.of(), Map.of());
+
+        static RoleCatalog of(List<Role> roles) {
+            Map<UUID, Role> byId = new HashMap<>();
+            Map<String, Role> byName = new HashMap<>();
+            roles.forEach(role -> {
+                byId.put(role.getId(), role);
+                byName.put(role.getName(), role);
+            });
+            return new RoleCatalog(true, Map.copyOf(byId), Map.copyOf(byName));
+        }
     }
 
     /*
 
 
     public Mono<Role> create(@Valid Role role) {
-        return roleRepository.save(role);
+        return roleRepository.save(role)
+                .flatMap(saved -> refresh().thenReturn(saved));
     }
 
     public Mono<Role> findById(UUID id) {
@@ -58,12 +142,14 @@ public class RoleService {
                 .flatMap(existingRole -> {
                     existingRole.setName(role.getName());
                     return roleRepository.save(existingRole);
-                });
+                })
+                .flatMap(saved -> refresh().thenReturn(saved));
     }
 
     // Delete role
     public Mono<Void> delete(UUID id) {
-        return roleRepository.deleteById(id);
+        return roleRepository.deleteById(id)
+                .then(refresh());
     }
 
     public Mono<Boolean> existsByName(String roleName) {
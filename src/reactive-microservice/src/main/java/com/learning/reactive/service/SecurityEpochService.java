@@ -0,0 +1,119 @@
+package com.learning.reactive.service;
+
+import com.learning.reactive.data.dto.TokenPrincipal;
+import com.learning.reactive.props.TokenProperties;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory view of {@code users.security_epoch}, the counter bumped whenever a user's issued
+ * tokens must stop working. Only users with a non-zero epoch are held, so the map stays small,
+ * and a token check is one hash lookup. Bumps made through this instance are applied as they
+ * commit; a periodic resync picks up bumps made elsewhere. Entries only ever move forward.
+ * <p>
+ * A deleted user has no row left to bump, so the delete trigger records a tombstone in
+ * {@code deleted_users} that the resync reads as an epoch no token can reach. Tombstones are
+ * purged once every access token issued before the deletion has expired.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class SecurityEpochService {
+
+    /** Epoch of a deleted user; every token predates it */
+    static final int DELETED = Integer.MAX_VALUE;
+
+    private static final String LOAD_SQL = """
+            SELECT id, security_epoch FROM users WHERE security_epoch > 0
+            UNION ALL
+            SELECT user_id, %d FROM deleted_users
+            """.formatted(DELETED);
+
+    private static final String PURGE_SQL = "DELETE FROM deleted_users WHERE deleted_at <= :cutoff";
+
+    private final DatabaseClient databaseClient;
+    private final TokenProperties tokenProperties;
+    private final Map<String, Integer> epochs = new ConcurrentHashMap<>();
+
+    /**
+     * @return whether the token was minted at or after the user's current epoch
+     */
+    public boolean isCurrent(TokenPrincipal principal) {
+        return principal.userId() != null
+                && principal.securityEpoch() >= epochs.getOrDefault(principal.userId(), 0);
+    }
+
+    /**
+     * Records an epoch already committed to the users table, e.g. by a conditional update.
+     */
+    public void advance(UUID userId, int securityEpoch) {
+        if (securityEpoch > 0) {
+            epochs.merge(userId.toString(), securityEpoch, Math::max);
+        }
+    }
+
+    /**
+     * Refuses every token of a user whose row was just deleted; other instances learn of it from
+     * the tombstone on their next resync.
+     */
+    public void revoke(UUID userId) {
+        advance(userId, DELETED);
+    }
+
+    /**
+     * Loads the epochs before the server accepts requests, so no token is checked against an
+     * empty map; startup fails rather than let tokens of locked or deleted users through.
+     */
+    @PostConstruct
+    void warmUp() {
+        load().block(Duration.ofSeconds(30));
+    }
+
+    /**
+     * Reloads every non-zero epoch and tombstone on a fixed delay.
+     */
+    @Scheduled(initialDelayString = "${app.securityEpoch.resyncIntervalSeconds:60}",
+            fixedDelayString = "${app.securityEpoch.resyncIntervalSeconds:60}", timeUnit = TimeUnit.SECONDS)
+    public Mono<Void> resync() {
+        return load()
+                .doOnError(e -> log.error("Security epoch resync failed, keeping the current epochs", e))
+                .onErrorComplete();
+    }
+
+    /**
+     * Drops the tombstones older than the access-token lifetime; their tokens have all expired.
+     */
+    @Scheduled(fixedDelayString = "${app.securityEpoch.purgeIntervalSeconds:3600}", timeUnit = TimeUnit.SECONDS)
+    public Mono<Void> purge() {
+        return databaseClient.sql(PURGE_SQL)
+                .bind("cutoff", LocalDateTime.now().minusSeconds(tokenProperties.getAccessTokenExpirySeconds()))
+                .fetch()
+                .rowsUpdated()
+                .doOnNext(deleted -> log.debug("Purged {} deleted-user tombstones", deleted))
+                .doOnError(e -> log.error("Purging deleted-user tombstones failed", e))
+                .onErrorComplete()
+                .then();
+    }
+
+    private Mono<Void> load() {
+        return databaseClient.sql(LOAD_SQL)
+                .map((row, metadata) -> Map.entry(row.get("id", UUID.class), row.get("security_epoch", Integer.class)))
+                .all()
+                .doOnNext(entry -> advance(entry.getKey(), entry.getValue()))
+                .count()
+                .doOnNext(count -> log.debug("Security epochs loaded for {} users", count))
+                .then();
+    }
+}
@@ -0,0 +1,86 @@
+package com.learning.reactive.service;
+
+import com.learning.reactive.common.exception.BusinessException;
+import com.learning.reactive.common.exception.enums.ExceptionType;
+import com.learning.reactive.config.security.RoleAuthorities;
+import com.learning.reactive.data.dto.TokenIntrospection;
+import com.learning.reactive.data.dto.TokenPrincipal;
+import com.learning.reactive.props.TokenProperties;
+import com.learning.reactive.service.VerifiedTokenCache.VerifiedToken;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Introspects many access tokens per call for gateways. Each distinct token goes through the
+ * same path as {@link com.learning.reactive.web.filter.JwtAuthenticationFilter}: the verified-token
+ * cache first, a single decode on a miss, and the security epoch check either way, so a token
+ * the gateway already saw costs one digest and two map lookups. A batch runs on the bounded
+ * parallel scheduler, so up to a few hundred signature checks never hold an event-loop thread.
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenIntrospectionService {
+
+    private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final SecurityEpochService securityEpochService;
+    private final TokenProperties tokenProperties;
+
+    /**
+     * @return one result per requested token, in request order; repeated tokens are verified once
+     * and null entries are answered as inactive
+     */
+    public Mono<List<TokenIntrospection>> introspect(List<String> tokens) {
+        int maxBatchSize = tokenProperties.getIntrospection().getMaxBatchSize();
+        if (tokens.size() > maxBatchSize) {
+            return Mono.error(BusinessException.builder(ExceptionType.INVALID_INPUT)
+                    .message("At most " + maxBatchSize + " tokens can be introspected per call")
+                    .build());
+        }
+        List<String> requested = tokens.stream().map(token -> token != null ? token : "").toList();
+        Map<String, TokenIntrospection> results = new HashMap<>();
+        return Flux.fromStream(requested.stream().distinct())
+                .concatMap(token -> introspect(token)
+                        .doOnNext(result -> results.put(token, result)))
+                .then(Mono.fromSupplier(() -> requested.stream().map(results::get).toList()))
+                .subscribeOn(Schedulers.parallel());
+    }
+
+    private Mono<TokenIntrospection> introspect(String token) {
+        if (token.isBlank()) {
+            return Mono.just(inactive());
+        }
+        VerifiedToken cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            return Mono.just(toResult(cached.principal()));
+        }
+        return jwtService.decode(token)
+                .doOnNext(principal -> verifiedTokenCache.put(token, VerifiedToken.of(principal)))
+                .map(this::toResult)
+                // an unknown kid may belong to a key added by the next key ring reload
+                .defaultIfEmpty(TokenIntrospection.inactive(tokenProperties.getIntrospection().getMaxCacheSeconds()));
+    }
+
+    private TokenIntrospection toResult(TokenPrincipal principal) {
+        if (!securityEpochService.isCurrent(principal)) {
+            return inactive();
+        }
+        long secondsToExpiry = principal.expiresAt().getEpochSecond() - System.currentTimeMillis() / 1000;
+        long cacheTtlSeconds = Math.max(0, Math.min(secondsToExpiry, tokenProperties.getIntrospection().getMaxCacheSeconds()));
+        return TokenIntrospection.active(principal, RoleAuthorities.names(principal.roleMask()), cacheTtlSeconds);
+    }
+
+    /**
+     * For results that stay inactive: blank tokens and tokens behind the user's security epoch.
+     */
+    private TokenIntrospection inactive() {
+        return TokenIntrospection.inactive(tokenProperties.getIntrospection().getInactiveCacheSeconds());
+    }
+}
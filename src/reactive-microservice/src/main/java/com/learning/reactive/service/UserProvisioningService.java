@@ -0,0 +1,240 @@
+package com.learning.reactive.service;
+
+import com.learning.reactive.common.api.response.error.FieldValidationError;
+import com.learning.reactive.data.dto.ProvisioningResult;
+import com.learning.reactive.data.dto.UserRequest;
+import com.learning.reactive.data.model.Role;
+import com.learning.reactive.data.model.RoleEnum;
+import com.learning.reactive.data.validator.AuthValidator;
+import com.learning.reactive.props.ProvisioningProperties;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.ReactiveAuditorAware;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Streams bulk user uploads into the database. Records are validated and hashed with bounded
+ * parallelism, then written in chunks of one multi-row users insert plus one user_roles insert,
+ * each chunk in its own transaction. Demand is driven by the response stream, so memory stays
+ * bounded by the chunk size and hashing concurrency whatever the upload size.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class UserProvisioningService {
+
+    private static final String INSERT_USER_ROLES = """
+            INSERT INTO user_roles (user_id, role_id, created_by, updated_by)
+            SELECT user_id, role_id, :createdBy, :createdBy FROM unnest(:userIds, :roleIds) AS t(user_id, role_id)
+            """;
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final ReactiveAuditorAware<String> auditorAware;
+    private final PasswordHashingService passwordHashingService;
+    private final RoleService roleService;
+    private final AuthValidator authValidator;
+    private final ObjectProvider<Validator> validatorProvider;
+    private final ProvisioningProperties provisioningProperties;
+
+    public Flux<ProvisioningResult> provision(Flux<UserRequest> userRequests) {
+        return auditorAware.getCurrentAuditor()
+                .defaultIfEmpty("System")
+                .flatMapMany(auditor -> userRequests
+                        .index()
+                        .flatMapSequential(indexed -> prepare(indexed.getT1(), indexed.getT2()),
+                                provisioningProperties.getHashingConcurrency())
+                        .buffer(provisioningProperties.getChunkSize())
+                        .concatMap(chunk -> insertChunk(chunk, auditor)));
+    }
+
+    private Mono<PreparedUser> prepare(long index, UserRequest request) {
+        List<FieldValidationError> errors = validate(request);
+        if (!errors.isEmpty()) {
+            return Mono.just(PreparedUser.rejected(ProvisioningResult.of(index, request.getUsername(),
+                    ProvisioningResult.Status.INVALID, errors)));
+        }
+        return resolveRoles(request.getRoles())
+                .flatMap(rolesByName -> {
+                    List<FieldValidationError> roleErrors = new ArrayList<>();
+                    for (RoleEnum role : request.getRoles()) {
+                        if (!rolesByName.containsKey(role.getName())) {
+                            roleErrors.add(new FieldValidationError("roles", role, "Unknown role."));
+                        }
+                    }
+                    if (!roleErrors.isEmpty()) {
+                        return Mono.just(PreparedUser.rejected(ProvisioningResult.of(index, request.getUsername(),
+                                ProvisioningResult.Status.INVALID, roleErrors)));
+                    }
+                    List<Role> roles = request.getRoles().stream().map(role -> rolesByName.get(role.getName())).toList();
+                    return passwordHashingService.encode(request.getPassword())
+                            .map(encodedPassword -> new PreparedUser(index, request, encodedPassword, roles, null));
+                })
+                .onErrorResume(RejectedExecutionException.class, e -> Mono.just(PreparedUser.rejected(
+                        ProvisioningResult.of(index, request.getUsername(), ProvisioningResult.Status.FAILED,
+                                List.of(new FieldValidationError("password", null, "Server is busy, please retry this record."))))));
+    }
+
+    private List<FieldValidationError> validate(UserRequest request) {
+        List<FieldValidationError> errors = new ArrayList<>();
+        Validator validator = validatorProvider.getIfAvailable();
+        if (validator != null) {
+            validator.validate(request).forEach(violation -> errors.add(new FieldValidationError(
+                    violation.getPropertyPath().toString(), violation.getInvalidValue(), violation.getMessage())));
+        }
+        if (!errors.isEmpty()) {
+            return errors;
+        }
+        if (request.getUsername() == null || request.getEmail() == null || request.getMobile() == null
+                || request.getPassword() == null || request.getAccountStatus() == null
+                || request.getRoles() == null || request.getRoles().isEmpty()) {
+            errors.add(new FieldValidationError("user", null, "username, password, email, mobile, accountStatus and roles are required."));
+            return errors;
+        }
+        if (!authValidator.isValidPassword(request.getPassword())) {
+            errors.add(new FieldValidationError("password", null,
+                    "User's password. Must be at least 8 characters long, contain at least one uppercase letter, one lowercase letter, and one digit."));
+        }
+        return errors;
+    }
+
+    /**
+     * Looks the roles up in the catalog, or in the table while the catalog is still loading, so an
+     * upload started right after boot is not rejected for roles that exist.
+     */
+    private Mono<Map<String, Role>> resolveRoles(List<RoleEnum> roles) {
+        return Flux.fromIterable(roles)
+                .map(RoleEnum::getName)
+                .distinct()
+                .concatMap(roleService::findByName)
+                .collectMap(Role::getName);
+    }
+
+    private Flux<ProvisioningResult> insertChunk(List<PreparedUser> chunk, String auditor) {
+        List<PreparedUser> insertable = chunk.stream().filter(PreparedUser::isInsertable).toList();
+        Mono<Map<String, UUID>> created = insertable.isEmpty()
+                ? Mono.just(new HashMap<>())
+                : insertUsers(insertable, auditor)
+                .flatMap(createdIds -> insertUserRoles(insertable, createdIds, auditor).thenReturn(createdIds))
+                .as(transactionalOperator::transactional);
+
+        return created
+                .map(createdIds -> chunk.stream().map(prepared -> toResult(prepared, createdIds)).toList())
+                .onErrorResume(e -> {
+                    log.error("Bulk provisioning chunk of {} users failed", insertable.size(), e);
+                    return Mono.just(chunk.stream().map(UserProvisioningService::toFailure).toList());
+                })
+                .flatMapIterable(results -> results);
+    }
+
+    /**
+     * One multi-row insert; rows clashing with an existing username, email or mobile are skipped
+     * by {@code ON CONFLICT DO NOTHING} and simply absent from the returned ids.
+     */
+    private Mono<Map<String, UUID>> insertUsers(List<PreparedUser> users, String auditor) {
+        StringBuilder sql = new StringBuilder("""
+                INSERT INTO users (first_name, last_name, username, password, email, mobile, account_status, created_by, updated_by)
+                VALUES\s""");
+        for (int i = 0; i < users.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(:firstName").append(i).append(", :lastName").append(i).append(", :username").append(i)
+                    .append(", :password").append(i).append(", :email").append(i).append(", :mobile").append(i)
+                    .append(", :accountStatus").append(i).append(", :auditor, :auditor)");
+        }
+        sql.append(" ON CONFLICT DO NOTHING RETURNING id, username");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString()).bind("auditor", auditor);
+        for (int i = 0; i < users.size(); i++) {
+            UserRequest request = users.get(i).request();
+            spec = bindNullable(spec, "firstName" + i, request.getFirstName())
+                    .bind("username" + i, request.getUsername())
+                    .bind("password" + i, users.get(i).encodedPassword())
+                    .bind("email" + i, request.getEmail())
+                    .bind("mobile" + i, request.getMobile())
+                    .bind("accountStatus" + i, request.getAccountStatus().name());
+            spec = bindNullable(spec, "lastName" + i, request.getLastName());
+        }
+        return spec.map((row, metadata) -> Map.entry(row.get("username", String.class), row.get("id", UUID.class)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue, HashMap::new);
+    }
+
+    private Mono<Void> insertUserRoles(List<PreparedUser> users, Map<String, UUID> createdIds, String auditor) {
+        List<UUID> userIds = new ArrayList<>();
+        List<UUID> roleIds = new ArrayList<>();
+        for (PreparedUser user : users) {
+            UUID userId = createdIds.get(user.request().getUsername());
+            if (userId == null) {
+                continue;
+            }
+            for (Role role : user.roles()) {
+                userIds.add(userId);
+                roleIds.add(role.getId());
+            }
+        }
+        if (userIds.isEmpty()) {
+            return Mono.empty();
+        }
+        return databaseClient.sql(INSERT_USER_ROLES)
+                .bind("userIds", userIds.toArray(UUID[]::new))
+                .bind("roleIds", roleIds.toArray(UUID[]::new))
+                .bind("createdBy", auditor)
+                .then();
+    }
+
+    /**
+     * Ids are handed out once per username, so a username repeated inside a chunk reports the
+     * first record as created and the rest as duplicates.
+     */
+    private static ProvisioningResult toResult(PreparedUser prepared, Map<String, UUID> createdIds) {
+        if (!prepared.isInsertable()) {
+            return prepared.rejection();
+        }
+        String username = prepared.request().getUsername();
+        UUID userId = createdIds.remove(username);
+        if (userId != null) {
+            return ProvisioningResult.created(prepared.index(), username, userId);
+        }
+        return ProvisioningResult.of(prepared.index(), username, ProvisioningResult.Status.DUPLICATE,
+                List.of(new FieldValidationError("user", username, "Username, email or mobile already taken.")));
+    }
+
+    private static ProvisioningResult toFailure(PreparedUser prepared) {
+        if (!prepared.isInsertable()) {
+            return prepared.rejection();
+        }
+        return ProvisioningResult.of(prepared.index(), prepared.request().getUsername(), ProvisioningResult.Status.FAILED,
+                List.of(new FieldValidationError("user", prepared.request().getUsername(), "Could not be saved, please retry this record.")));
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec, String name, String value) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, String.class);
+    }
+
+    private record PreparedUser(long index, UserRequest request, String encodedPassword, List<Role> roles,
+                                ProvisioningResult rejection) {
+
+        static PreparedUser rejected(ProvisioningResult rejection) {
+            return new PreparedUser(rejection.index(), null, null, List.of(), rejection);
+        }
+
+        boolean isInsertable() {
+            return rejection == null;
+        }
+    }
+}
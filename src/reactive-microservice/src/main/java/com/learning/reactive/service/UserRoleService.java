@@ -28,6 +28,17 @@ public class UserRoleService {
         return userRoleRepository.saveAll(userRoles);
     }
 
+    /**
+     * Inserts every role assignment of a user with one statement.
+     */
+    Mono<Void> assignRoles(UUID userId, List<UUID> roleIds, String createdBy) {
+        if (roleIds.isEmpty()) {
+            return Mono.empty();
+        }
+        return userRoleRepository.insertAll(userId, roleIds.toArray(UUID[]::new), createdBy)
+                .then();
+    }
+
     public Flux<UserRole> findAllByUserId(UUID id) {
         return userRoleRepository.findByUserId(id);
     }
@@ -1,17 +1,36 @@
 package com.learning.reactive.service;
 
+import com.learning.reactive.common.api.response.error.FieldValidationError;
+import com.learning.reactive.common.exception.BusinessException;
+import com.learning.reactive.common.exception.enums.ExceptionType;
+import com.learning.reactive.data.dto.TokenSubject;
+import com.learning.reactive.data.dto.UserCursor;
+import com.learning.reactive.data.dto.UserPage;
+import com.learning.reactive.data.dto.UserPatchRequest;
 import com.learning.reactive.data.dto.UserResponse;
+import com.learning.reactive.data.dto.UserSummary;
+import com.learning.reactive.data.dto.UserWithRoles;
 import com.learning.reactive.data.mapper.UserMapper;
 import com.learning.reactive.data.model.Role;
 import com.learning.reactive.data.model.User;
 import com.learning.reactive.data.repository.UserRepository;
+import com.learning.reactive.data.validator.AuthValidator;
+import com.learning.reactive.props.PaginationProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.ReactiveAuditorAware;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -19,15 +38,31 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class UserService {
 
-    private final UserRoleService userRoleService;
+    /** Columns whose change bumps the user's security epoch */
+    private static final Set<String> SECURITY_COLUMNS = Set.of("password", "account_status", "account_locked",
+            "account_expired", "credentials_expired", "password_expired");
+
     private final UserRepository userRepository;
     private final RoleService roleService;
     private final UserMapper userMapper;
+    private final PaginationProperties paginationProperties;
+    private final PasswordHashingService passwordHashingService;
+    private final ReactiveAuditorAware<String> auditorAware;
+    private final SecurityEpochService securityEpochService;
+    private final AuthValidator authValidator;
 
     public Mono<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
 
+    public Mono<UserWithRoles> findByUsernameWithRoles(String username) {
+        return userRepository.findByUsernameWithRoles(username);
+    }
+
+    public Mono<TokenSubject> findTokenSubject(String username) {
+        return userRepository.findTokenSubjectByUsername(username);
+    }
+
 
 
 
@@ -35,6 +70,47 @@ public class UserService {
         return userRepository.findAll();
     }
 
+    /**
+     * Returns one keyset page; one extra row is read to tell whether a next page exists.
+     */
+    public Mono<UserPage> findPage(String cursor, Integer size) {
+        int pageSize = Math.min(Math.max(size != null ? size : paginationProperties.getDefaultPageSize(), 1),
+                paginationProperties.getMaxPageSize());
+        UserCursor after = cursor != null && !cursor.isBlank() ? UserCursor.decode(cursor) : null;
+        return userRepository.findPage(after, pageSize + 1)
+                .collectList()
+                .flatMap(users -> {
+                    List<UserSummary> page = users.size() > pageSize ? users.subList(0, pageSize) : users;
+                    String nextCursor = users.size() > pageSize
+                            ? new UserCursor(page.get(pageSize - 1).createdAt(), page.get(pageSize - 1).id()).encode()
+                            : null;
+                    return toUserResponses(page)
+                            .map(items -> new UserPage(items, nextCursor));
+                });
+    }
+
+    /**
+     * Streams all users with bounded memory: rows are pulled in fetch-size batches and each
+     * batch resolves its roles in one statement.
+     */
+    public Flux<UserResponse> streamAll() {
+        int fetchSize = paginationProperties.getStreamFetchSize();
+        return userRepository.streamAll(fetchSize)
+                .buffer(fetchSize)
+                .concatMap(this::toUserResponses)
+                .flatMapIterable(responses -> responses);
+    }
+
+    private Mono<List<UserResponse>> toUserResponses(List<UserSummary> users) {
+        if (users.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        return getRoleNamesForUsers(users.stream().map(UserSummary::id).toList())
+                .map(roleNames -> users.stream()
+                        .map(user -> userMapper.toUserResponse(user, roleNames.getOrDefault(user.id(), List.of())))
+                        .toList());
+    }
+
     public Mono<User> getUserById(UUID id) {
         return userRepository.findById(id);
     }
@@ -50,6 +126,7 @@ public class UserService {
     public Mono<User> update(UUID id, User updatedUser) {
         return userRepository.findById(id)
                 .flatMap(user -> {
+                    boolean securityChange = isSecurityChange(user, updatedUser);
                     user.setUsername(updatedUser.getUsername());
                     user.setPassword(updatedUser.getPassword());
                     user.setEmail(updatedUser.getEmail());
@@ -62,42 +139,142 @@ public class UserService {
                     user.setFailedAttempts(updatedUser.getFailedAttempts());
                     user.setLastFailedAttempt(updatedUser.getLastFailedAttempt());
                     user.setLastPasswordChange(updatedUser.getLastPasswordChange());
-                    return userRepository.save(user);
+                    if (!securityChange) {
+                        return userRepository.save(user);
+                    }
+                    user.setSecurityEpoch(user.getSecurityEpoch() + 1);
+                    return userRepository.save(user)
+                            .doOnNext(saved -> securityEpochService.advance(saved.getId(), saved.getSecurityEpoch()));
                 })
                 .switchIfEmpty(Mono.error(new RuntimeException("User not found")));
     }
 
+    /**
+     * Applies the non-null fields of the patch in one conditional statement keyed on id and
+     * version, so concurrent writers cannot overwrite each other's changes.
+     *
+     * @return the updated user, empty when the id is unknown, a {@link ExceptionType#CONFLICT}
+     * error when the version is stale, or a {@link ExceptionType#DUPLICATE_VALUE} error when the new
+     * username, email or mobile belongs to another user
+     */
+    public Mono<UserResponse> patch(UUID id, UserPatchRequest patch) {
+        if (patch.getPassword() != null && !authValidator.isValidPassword(patch.getPassword())) {
+            return Mono.error(BusinessException.builder(ExceptionType.INVALID_INPUT)
+                    .validationErrors(List.of(new FieldValidationError("password", null,
+                            "User's password. Must be at least 8 characters long, contain at least one uppercase letter, one lowercase letter, and one digit.")))
+                    .build());
+        }
+        Mono<String> encodedPassword = patch.getPassword() != null
+                ? passwordHashingService.encode(patch.getPassword())
+                : Mono.just("");
+        return Mono.zip(encodedPassword, auditorAware.getCurrentAuditor().defaultIfEmpty("System"))
+                .flatMap(passwordAndAuditor -> {
+                    Map<String, Object> changes = toColumnChanges(patch, passwordAndAuditor.getT1());
+                    if (changes.isEmpty()) {
+                        return Mono.error(BusinessException.builder(ExceptionType.INVALID_INPUT)
+                                .message("No fields to update")
+                                .build());
+                    }
+                    boolean securityChange = SECURITY_COLUMNS.stream().anyMatch(changes::containsKey);
+                    return userRepository.updateIfVersionMatches(id, patch.getVersion(), changes, securityChange,
+                                    passwordAndAuditor.getT2())
+                            .doOnNext(updated -> securityEpochService.advance(id, updated.securityEpoch()))
+                            .switchIfEmpty(Mono.defer(() -> userRepository.existsById(id)
+                                    .flatMap(exists -> exists
+                                            ? Mono.error(BusinessException.builder(ExceptionType.CONFLICT).build())
+                                            : Mono.empty())));
+                })
+                // the unique constraints are the uniqueness check, so a concurrent taker is caught too
+                .onErrorMap(DuplicateKeyException.class, e -> BusinessException.builder(ExceptionType.DUPLICATE_VALUE)
+                        .cause(e)
+                        .build())
+                .map(updated -> userMapper.toUserResponse(updated.user(), updated.roleNames()));
+    }
+
+    private static Map<String, Object> toColumnChanges(UserPatchRequest patch, String encodedPassword) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        putIfPresent(changes, "first_name", patch.getFirstName());
+        putIfPresent(changes, "last_name", patch.getLastName());
+        putIfPresent(changes, "username", patch.getUsername());
+        putIfPresent(changes, "email", patch.getEmail());
+        putIfPresent(changes, "mobile", patch.getMobile());
+        putIfPresent(changes, "account_status", patch.getAccountStatus() != null ? patch.getAccountStatus().name() : null);
+        putIfPresent(changes, "account_locked", patch.getAccountLocked());
+        putIfPresent(changes, "account_expired", patch.getAccountExpired());
+        putIfPresent(changes, "credentials_expired", patch.getCredentialsExpired());
+        putIfPresent(changes, "password_expired", patch.getPasswordExpired());
+        if (patch.getPassword() != null) {
+            changes.put("password", encodedPassword);
+            changes.put("last_password_change", LocalDateTime.now());
+        }
+        return changes;
+    }
+
+    /**
+     * Whether a full update changes anything that must cut off the user's issued tokens.
+     */
+    private static boolean isSecurityChange(User current, User updated) {
+        return !Objects.equals(current.getPassword(), updated.getPassword())
+                || current.getAccountStatus() != updated.getAccountStatus()
+                || current.isAccountLocked() != updated.isAccountLocked()
+                || current.isAccountExpired() != updated.isAccountExpired()
+                || current.isCredentialsExpired() != updated.isCredentialsExpired()
+                || current.isPasswordExpired() != updated.isPasswordExpired();
+    }
+
+    private static void putIfPresent(Map<String, Object> changes, String column, Object value) {
+        if (value != null) {
+            changes.put(column, value);
+        }
+    }
+
+    /**
+     * Deletes the user and refuses the access tokens already issued to them.
+     */
     public Mono<Void> deleteById(UUID id) {
-        return userRepository.deleteById(id);
+        return userRepository.deleteById(id)
+                .doOnSuccess(ignored -> securityEpochService.revoke(id));
     }
 
     public Mono<UserResponse> findById(UUID id) {
-        return userRepository.findById(id)
+        return userRepository.findSummaryById(id) // response columns only
                 .flatMap(user ->
-                        getRolesForUser(user.getId())
-                                .map(roles -> userMapper.toUserResponse(user, roles))
+                        getRoleNamesForUser(user.id())
+                                .map(roleNames -> userMapper.toUserResponse(user, roleNames))
                 );
     }
 
 
     public Mono<List<Role>> getRolesForUser(UUID userId) {
-        return userRoleService.findAllByUserId(userId)       // Flux<UserRole>
-                .flatMap(userRole -> roleService.findById(userRole.getRoleId())) // Flux<Role>
+        return roleService.findAllByUserId(userId) // single user_roles/roles join
                 .collectList(); // Mono<List<Role>>
     }
 
 
     public Mono<List<String>> getRoleNamesForUser(UUID userId) {
-        return userRoleService.findAllByUserId(userId)       // Flux<UserRole>
-                .flatMap(userRole -> roleService.findById(userRole.getRoleId())) // Flux<Role>
-                .map(Role::getName)
-                .collectList(); // Mono<List<Role>>
+        return roleService.findNamesByUserId(userId) // single user_roles/roles join
+                .collectList(); // Mono<List<String>>
+    }
+
+    /**
+     * @return role names keyed by user id, loaded with one statement for the whole batch
+     */
+    public Mono<Map<UUID, Collection<String>>> getRoleNamesForUsers(Collection<UUID> userIds) {
+        return roleService.findNamesByUserIds(userIds);
     }
 
     public Mono<User> save(User user) {
         return userRepository.save(user);
     }
 
+    /**
+     * Replaces the stored hash without touching other columns, e.g. after a cost upgrade on login.
+     */
+    public Mono<Void> updatePassword(String username, String encodedPassword) {
+        return userRepository.updatePasswordByUsername(username, encodedPassword)
+                .then();
+    }
+
     /*private final UserRepository userRepository;
 
     public Mono<User> create(User user) {
@@ -0,0 +1,176 @@
+package com.learning.reactive.service;
+
+import com.learning.reactive.config.security.TokenAuthentication;
+import com.learning.reactive.data.dto.TokenPrincipal;
+import com.learning.reactive.props.TokenProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of bearer tokens that already passed signature and expiry checks.
+ * Entries are keyed by the SHA-256 digest of the token, so raw tokens are never retained,
+ * and are dropped once the token's {@code exp} is reached. When full, expired entries are swept
+ * at most once per {@link #FULL_PURGE_INTERVAL_MILLIS}; otherwise the entry closest to expiry
+ * among the first {@link #EVICTION_SAMPLE_SIZE} iterated makes room. Keys are digests, so the
+ * sample is effectively random, and it spends the cache on the tokens still valid the longest.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    /** Minimum gap between sweeps triggered by a full cache, so misses never scan the map back to back */
+    static final long FULL_PURGE_INTERVAL_MILLIS = 1000;
+
+    /** Entries compared when one must be evicted from a full cache */
+    static final int EVICTION_SAMPLE_SIZE = 8;
+
+    private final TokenProperties tokenProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final AtomicLong nextFullPurgeAt = new AtomicLong();
+
+    @PostConstruct
+    void registerMetrics() {
+        FunctionCounter.builder("auth.token.cache.hits", hits, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("auth.token.cache.misses", misses, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("auth.token.cache.evictions", evictions, LongAdder::sum).register(meterRegistry);
+        Gauge.builder("auth.token.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * @param token raw bearer token
+     * @return the cached verification result, or {@code null} when absent or expired
+     */
+    public VerifiedToken get(String token) {
+        return get(token, System.currentTimeMillis());
+    }
+
+    VerifiedToken get(String token, long nowMillis) {
+        String key = digest(token);
+        VerifiedToken entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.isExpired(nowMillis)) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry;
+    }
+
+    public void put(String token, VerifiedToken verifiedToken) {
+        put(token, verifiedToken, System.currentTimeMillis());
+    }
+
+    void put(String token, VerifiedToken verifiedToken, long nowMillis) {
+        if (verifiedToken.isExpired(nowMillis)) {
+            return;
+        }
+        if (entries.size() >= tokenProperties.getCache().getMaxEntries()) {
+            // only one caller per interval pays for the sweep, the others just make room
+            long nextPurge = nextFullPurgeAt.get();
+            if (nowMillis >= nextPurge && nextFullPurgeAt.compareAndSet(nextPurge, nowMillis + FULL_PURGE_INTERVAL_MILLIS)) {
+                purgeExpired(nowMillis);
+            }
+            if (entries.size() >= tokenProperties.getCache().getMaxEntries()) {
+                evictOne();
+            }
+        }
+        entries.put(digest(token), verifiedToken);
+    }
+
+    @Scheduled(fixedDelayString = "${app.token.cache.purgeIntervalSeconds:60}", timeUnit = TimeUnit.SECONDS)
+    public void purgeExpired() {
+        purgeExpired(System.currentTimeMillis());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void purgeExpired(long now) {
+        entries.forEach((key, entry) -> {
+            if (entry.isExpired(now) && entries.remove(key, entry)) {
+                evictions.increment();
+            }
+        });
+    }
+
+    private void evictOne() {
+        Map.Entry<String, VerifiedToken> victim = null;
+        Iterator<Map.Entry<String, VerifiedToken>> iterator = entries.entrySet().iterator();
+        for (int i = 0; i < EVICTION_SAMPLE_SIZE && iterator.hasNext(); i++) {
+            Map.Entry<String, VerifiedToken> candidate = iterator.next();
+            if (victim == null || candidate.getValue().expiresAtMillis() < victim.getValue().expiresAtMillis()) {
+                victim = candidate;
+            }
+        }
+        if (victim != null && entries.remove(victim.getKey(), victim.getValue())) {
+            evictions.increment();
+        }
+    }
+
+    private static String digest(String token) {
+        MessageDigest messageDigest = SHA_256.get();
+        messageDigest.reset();
+        byte[] hash = messageDigest.digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    /**
+     * @param authentication built once per token and reused by every request that carries it
+     */
+    public record VerifiedToken(TokenPrincipal principal, Authentication authentication) {
+
+        /**
+         * Authorities are a shared list per role combination, nothing is copied.
+         */
+        public static VerifiedToken of(TokenPrincipal principal) {
+            return new VerifiedToken(principal, new TokenAuthentication(principal.subject(), principal.roleMask()));
+        }
+
+        boolean isExpired(long nowMillis) {
+            return expiresAtMillis() <= nowMillis;
+        }
+
+        long expiresAtMillis() {
+            return principal.expiresAt().toEpochMilli();
+        }
+    }
+}
@@ -4,10 +4,14 @@ import com.learning.reactive.common.api.response.APIResponse;
 import com.learning.reactive.data.dto.AuthenticationRequest;
 import com.learning.reactive.data.dto.AuthenticationResponse;
 import com.learning.reactive.data.dto.RefreshTokenRequest;
+import com.learning.reactive.data.dto.TokenIntrospection;
+import com.learning.reactive.data.dto.TokenIntrospectionRequest;
 import com.learning.reactive.data.dto.UserRequest;
 import com.learning.reactive.data.dto.UserResponse;
 import com.learning.reactive.service.AuthService;
 import com.learning.reactive.service.JwtService;
+import com.learning.reactive.service.SecurityEpochService;
+import com.learning.reactive.service.TokenIntrospectionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -27,6 +31,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
@@ -36,6 +42,8 @@ public class AuthController {
 
     private final AuthService authService;
     private final JwtService jwtService;
+    private final SecurityEpochService securityEpochService;
+    private final TokenIntrospectionService tokenIntrospectionService;
 
     @PostMapping("/register")
     @Operation(
@@ -79,7 +87,7 @@ public class AuthController {
     @PostMapping("/refresh")
     @Operation(
             summary = "Refresh authentication token",
-            description = "This endpoint allows a user to refresh their authentication token using a valid refresh token. No Authorization header required."
+            description = "This endpoint allows a user to refresh their authentication token using a valid refresh token. Each refresh token can be used once; reusing one revokes its whole token family. No Authorization header required."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Token refreshed successfully"),
@@ -89,22 +97,16 @@ public class AuthController {
     public Mono<APIResponse<?>> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
         String refreshToken = refreshTokenRequest.refreshToken();
 
-        return jwtService.isValidJwt(refreshToken)  // Mono<Boolean>
-                .flatMap(isValid -> {
-                    if (isValid) {
-                        return jwtService.generateAuthResponse(refreshToken)
-                                .map(authResponse ->
-                                        APIResponse.success(authResponse, "Token generated successfully.")
-                                );
-                    } else {
-                        return Mono.just(
-                                APIResponse.failure(
-                                        String.valueOf(HttpStatus.UNAUTHORIZED.value()),
-                                        "Invalid or expired refresh token"
-                                )
-                        );
-                    }
-                });
+        return jwtService.refresh(refreshToken)  // empty when invalid, expired or already used
+                .<APIResponse<?>>map(authResponse ->
+                        APIResponse.success(authResponse, "Token generated successfully.")
+                )
+                .defaultIfEmpty(
+                        APIResponse.failure(
+                                String.valueOf(HttpStatus.UNAUTHORIZED.value()),
+                                "Invalid or expired refresh token"
+                        )
+                );
     }
 
     @GetMapping("/validate-token")
@@ -126,15 +128,29 @@ public class AuthController {
             @RequestHeader("Authorization") String authHeader) {
 
         String token = authHeader.replace("Bearer ", "").trim();
-        log.info("Started validate token: {}", token);
+        log.debug("Validating bearer token");
+
+        return jwtService.decode(token) // Mono<TokenPrincipal>, empty when invalid
+                .filter(securityEpochService::isCurrent)
+                .map(principal -> ResponseEntity.ok("Token is valid"))
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token"));
+    }
 
-        return jwtService.isValidJwt(token) // Mono<Boolean>
-                .map(isValid -> {
-                    if (isValid) {
-                        return ResponseEntity.ok("Token is valid");
-                    } else {
-                        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
-                    }
-                });
+    @PostMapping("/introspect")
+    @Operation(
+            summary = "Introspect access tokens in bulk",
+            description = "Validates many access tokens in one call and returns, in request order, whether each is active "
+                    + "along with its subject, user id, roles and expiry. cacheTtlSeconds says how long each result may be reused. "
+                    + "Requires a token with ROLE_GATEWAY or ROLE_ADMIN."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tokens introspected"),
+            @ApiResponse(responseCode = "400", description = "No tokens, or more than the configured batch size"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Caller holds neither ROLE_GATEWAY nor ROLE_ADMIN")
+    })
+    public Mono<APIResponse<List<TokenIntrospection>>> introspect(@Valid @RequestBody TokenIntrospectionRequest request) {
+        return tokenIntrospectionService.introspect(request.tokens())
+                .map(results -> APIResponse.success(results, "Tokens introspected successfully"));
     }
 }
@@ -0,0 +1,39 @@
+package com.learning.reactive.web.controller;
+
+import com.learning.reactive.props.TokenProperties;
+import com.learning.reactive.service.JwtKeyRing;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final JwtKeyRing jwtKeyRing;
+    private final TokenProperties tokenProperties;
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+            summary = "JSON Web Key Set",
+            description = "Public keys for verifying access tokens locally. Only asymmetric (ES256/EdDSA) keys are published."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Key set returned")
+    })
+    public Mono<ResponseEntity<Map<String, Object>>> jwks() {
+        return Mono.fromSupplier(() -> ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(tokenProperties.getJwksMaxAgeSeconds())).cachePublic())
+                .body(jwtKeyRing.jwks()));
+    }
+}
@@ -0,0 +1,34 @@
+package com.learning.reactive.web.controller;
+
+import com.learning.reactive.common.api.response.APIResponse;
+import com.learning.reactive.service.RoleService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/admin/roles")
+@RequiredArgsConstructor
+public class RoleController {
+
+    private final RoleService roleService;
+
+    @PostMapping("/reload")
+    @Operation(
+            summary = "Reload the role catalog",
+            description = "Re-reads the roles table into the in-memory catalog without waiting for the scheduled refresh. Requires ROLE_ADMIN."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Role catalog reloaded"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public Mono<APIResponse<Integer>> reload() {
+        return roleService.invalidate()
+                .map(count -> APIResponse.success(count, "Role catalog reloaded successfully"));
+    }
+}
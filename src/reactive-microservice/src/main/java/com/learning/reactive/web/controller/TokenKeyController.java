@@ -0,0 +1,37 @@
+package com.learning.reactive.web.controller;
+
+import com.learning.reactive.common.api.response.APIResponse;
+import com.learning.reactive.service.JwtKeyRing;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@RestController
+@RequestMapping("/admin/token-keys")
+@RequiredArgsConstructor
+public class TokenKeyController {
+
+    private final JwtKeyRing jwtKeyRing;
+
+    @PostMapping("/reload")
+    @Operation(
+            summary = "Reload JWT signing keys",
+            description = "Re-reads the key file configured as app.token.keyFile and swaps the key ring without a restart. Requires ROLE_ADMIN."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Key ring reloaded"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public Mono<APIResponse<String>> reload() {
+        return Mono.fromRunnable(jwtKeyRing::reload)
+                .subscribeOn(Schedulers.boundedElastic()) // reads the key file
+                .then(Mono.fromSupplier(() ->
+                        APIResponse.success(jwtKeyRing.activeKeyId(), "Token keys reloaded successfully")));
+    }
+}
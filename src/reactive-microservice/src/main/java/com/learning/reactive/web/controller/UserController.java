@@ -1,21 +1,30 @@
 package com.learning.reactive.web.controller;
 
+import com.learning.reactive.data.dto.ProvisioningResult;
+import com.learning.reactive.data.dto.UserPage;
+import com.learning.reactive.data.dto.UserPatchRequest;
+import com.learning.reactive.data.dto.UserRequest;
 import com.learning.reactive.data.dto.UserResponse;
 import com.learning.reactive.data.model.User;
+import com.learning.reactive.service.UserProvisioningService;
 import com.learning.reactive.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -29,6 +38,7 @@ import java.util.UUID;
 public class UserController {
 
     private final UserService userService;
+    private final UserProvisioningService userProvisioningService;
 
     @GetMapping("/{id}")
     @Operation(summary = "Get user by ID", description = "Fetches a user by their UUID. Requires authentication.")
@@ -43,14 +53,37 @@ public class UserController {
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
-    @GetMapping
-    @Operation(summary = "Get all users", description = "Fetches all users. Requires authentication.")
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get users page", description = "Fetches users ordered by creation time, one page per call. Pass the returned nextCursor to get the next page. Requires authentication.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Users fetched successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
             @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
-    public Flux<User> getAll() {
-        return userService.findAll();
+    public Mono<UserPage> getAll(@RequestParam(required = false) String cursor,
+                                 @RequestParam(required = false) Integer size) {
+        return userService.findPage(cursor, size);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all users", description = "Streams every user as newline-delimited JSON with constant memory. Requires authentication.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users streamed successfully"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public Flux<UserResponse> streamAll() {
+        return userService.streamAll();
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Bulk provision users", description = "Streams newline-delimited user records in and one result per record out, in input order. Requires admin role.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Upload processed, see per-record status"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    public Flux<ProvisioningResult> bulkCreate(@RequestBody Flux<UserRequest> userRequests) {
+        return userProvisioningService.provision(userRequests);
     }
 
     @PutMapping("/{id}")
@@ -67,6 +100,21 @@ public class UserController {
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
+    @PatchMapping("/{id}")
+    @Operation(summary = "Partially update a user", description = "Changes only the fields sent, provided the version still matches. Requires authentication.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "User updated successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "404", description = "User not found"),
+            @ApiResponse(responseCode = "409", description = "User was modified since the given version")
+    })
+    public Mono<ResponseEntity<UserResponse>> patch(@PathVariable UUID id, @RequestBody @Valid UserPatchRequest patch) {
+        return userService.patch(id, patch)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a user", description = "Deletes a user by their UUID. Requires authentication.")
     @ApiResponses(value = {
@@ -0,0 +1,28 @@
+package com.learning.reactive.web.filter;
+
+import lombok.NonNull;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Puts the request method and path into the Reactor context so code far from the web layer,
+ * such as the slow-query log, can name the endpoint it runs for.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class EndpointContextFilter implements WebFilter {
+
+    public static final String ENDPOINT_CONTEXT_KEY = EndpointContextFilter.class.getName() + ".endpoint";
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        String endpoint = exchange.getRequest().getMethod().name() + " " + exchange.getRequest().getPath().value();
+        return chain.filter(exchange)
+                .contextWrite(context -> context.put(ENDPOINT_CONTEXT_KEY, endpoint));
+    }
+}
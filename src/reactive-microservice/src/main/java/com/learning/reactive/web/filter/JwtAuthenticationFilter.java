@@ -1,25 +1,28 @@
 package com.learning.reactive.web.filter;
 
-import com.learning.reactive.constant.AppConstant;
+import com.learning.reactive.config.security.RouteClassifier;
+import com.learning.reactive.config.security.RouteClassifier.RouteAccess;
+import com.learning.reactive.data.dto.TokenPrincipal;
 import com.learning.reactive.service.JwtService;
+import com.learning.reactive.service.RequestPhaseTimers;
+import com.learning.reactive.service.RequestPhaseTimers.Phase;
+import com.learning.reactive.service.SecurityEpochService;
+import com.learning.reactive.service.VerifiedTokenCache;
+import com.learning.reactive.service.VerifiedTokenCache.VerifiedToken;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.stereotype.Component;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
 
-import java.util.List;
 
 @RequiredArgsConstructor
 @Component
@@ -27,6 +30,10 @@ import java.util.List;
 public class JwtAuthenticationFilter implements WebFilter {
 
     private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final RequestPhaseTimers phaseTimers;
+    private final RouteClassifier routeClassifier;
+    private final SecurityEpochService securityEpochService;
 
     /**
      * @param exchange – the current server exchange
@@ -35,36 +42,76 @@ public class JwtAuthenticationFilter implements WebFilter {
      */
     @Override
     public Mono<Void> filter(ServerWebExchange exchange,@NonNull WebFilterChain chain) {
-        String path = exchange.getRequest().getPath().value();
+        RouteAccess access = routeClassifier.classify(exchange);
 
-        if (isPublicUrl(path)) {
+        if (access == RouteAccess.PUBLIC) {
             return chain.filter(exchange);
         }
 
         String token = extractToken(exchange);
         if (token == null) return chain.filter(exchange);
-        return validateToken(token)
-                .flatMap(isValid -> isValid ? authenticateAndContinue(token, exchange, chain)
-                        : handleInvalidToken(exchange));
+
+        boolean sampled = phaseTimers.sample();
+        VerifiedToken cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            // the epoch is checked on every request, so a cached token is cut off as soon as it moves
+            return securityEpochService.isCurrent(cached.principal())
+                    ? continueAuthenticated(cached, exchange, chain, sampled)
+                    : handleInvalidToken(exchange);
+        }
+        return decode(token, sampled)
+                .filter(securityEpochService::isCurrent)
+                .map(principal -> authenticate(token, principal, sampled))
+                .switchIfEmpty(Mono.defer(() -> handleInvalidToken(exchange).then(Mono.<VerifiedToken>empty())))
+                .flatMap(verifiedToken -> continueAuthenticated(verifiedToken, exchange, chain, sampled));
+    }
+
+    private Mono<TokenPrincipal> decode(String token, boolean sampled) {
+        if (!sampled) {
+            return jwtService.decode(token);
+        }
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return jwtService.decode(token)
+                    .doOnNext(principal -> phaseTimers.record(Phase.DECODE, start, System.nanoTime()));
+        });
+    }
+
+    private VerifiedToken authenticate(String token, TokenPrincipal principal, boolean sampled) {
+        long start = sampled ? System.nanoTime() : 0;
+        VerifiedToken verifiedToken = VerifiedToken.of(principal);
+        verifiedTokenCache.put(token, verifiedToken);
+        if (sampled) {
+            phaseTimers.record(Phase.AUTHORITIES, start, System.nanoTime());
+        }
+        return verifiedToken;
     }
 
-    private Mono<Void> authenticateAndContinue(String token, ServerWebExchange exchange, WebFilterChain chain) {
-        return jwtService.getRolesFromToken(token)
-                .flatMap(roles -> {
-                    List<SimpleGrantedAuthority> authorities = roles.stream()
-                            .map(SimpleGrantedAuthority::new)
-                            .toList();
+    private Mono<Void> continueAuthenticated(VerifiedToken verifiedToken, ServerWebExchange exchange, WebFilterChain chain,
+                                             boolean sampled) {
+        long contextStart = sampled ? System.nanoTime() : 0;
+        Context securityContext = ReactiveSecurityContextHolder.withAuthentication(verifiedToken.authentication());
+        if (!sampled) {
+            return chain.filter(exchange).contextWrite(securityContext);
+        }
+        phaseTimers.record(Phase.CONTEXT, contextStart, System.nanoTime());
 
-                    Authentication auth = new UsernamePasswordAuthenticationToken(
-                            jwtService.getSubjectFromToken(token),
-                            null,
-                            authorities
-                    );
-                    log.info("authorities: {}", authorities);
-                    return chain
-                            .filter(exchange)
-                            .contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth));
-                });
+        long[] committedAt = new long[1];
+        exchange.getResponse().beforeCommit(() -> {
+            committedAt[0] = System.nanoTime();
+            return Mono.empty();
+        });
+        return Mono.defer(() -> {
+                    long handlerStart = System.nanoTime();
+                    return chain.filter(exchange)
+                            .doOnSuccess(done -> {
+                                long end = System.nanoTime();
+                                long committed = committedAt[0] != 0 ? committedAt[0] : end;
+                                phaseTimers.record(Phase.HANDLER, handlerStart, committed);
+                                phaseTimers.record(Phase.WRITE, committed, end);
+                            });
+                })
+                .contextWrite(securityContext);
     }
 
 
@@ -80,18 +127,4 @@ public class JwtAuthenticationFilter implements WebFilter {
         }
         return null;
     }
-
-    private Mono<Boolean> validateToken(String token) {
-        return jwtService.isValidJwt(token);
-    }
-
-    private boolean isPublicUrl(String path) {
-        AntPathMatcher pathMatcher = new AntPathMatcher();
-        for (String pattern : AppConstant.PERMIT_ALL_URLS) {
-            if (pathMatcher.match(pattern, path)) {
-                return true;
-            }
-        }
-        return false;
-    }
 }
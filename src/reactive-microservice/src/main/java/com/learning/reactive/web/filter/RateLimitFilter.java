@@ -0,0 +1,48 @@
+package com.learning.reactive.web.filter;
+
+import com.learning.reactive.common.exception.RateLimitExceededException;
+import com.learning.reactive.service.RateLimitService;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Throttles configured routes per client address ahead of security and controllers, so rejected
+ * requests never reach BCrypt or the connection pool.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class RateLimitFilter implements WebFilter {
+
+    private static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+    private final RateLimitService rateLimitService;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        String clientAddress = rateLimitService.resolveClientAddress(
+                remoteAddress != null ? remoteAddress.getAddress() : null,
+                exchange.getRequest().getHeaders().getOrEmpty(X_FORWARDED_FOR));
+        long waitNanos = rateLimitService.tryAcquireForAddress(
+                exchange.getRequest().getPath().pathWithinApplication(), clientAddress);
+        if (waitNanos == 0) {
+            return chain.filter(exchange);
+        }
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER,
+                String.valueOf(RateLimitExceededException.retryAfterSeconds(waitNanos)));
+        return exchange.getResponse().setComplete();
+    }
+}
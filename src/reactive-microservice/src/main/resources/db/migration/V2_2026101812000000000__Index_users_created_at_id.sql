@@ -0,0 +1,2 @@
+-- Supports keyset pagination and streaming of users ordered by (created_at, id)
+CREATE INDEX IF NOT EXISTS "users_created_at_id_idx" ON "users" ("created_at", "id");
@@ -0,0 +1,10 @@
+-- One row per refresh-token family (login session); only the latest token of a family is redeemable
+CREATE TABLE IF NOT EXISTS "refresh_token_families" (
+    id UUID PRIMARY KEY,
+    "username" varchar(50) NOT NULL,
+    current_token_id UUID NOT NULL, -- jti of the only refresh token that may still be used
+    expires_at TIMESTAMP NOT NULL, -- expiry of the current token
+    "revoked" boolean DEFAULT false NOT NULL -- set when an already used token was presented again
+);
+
+CREATE INDEX IF NOT EXISTS "refresh_token_families_expires_at_idx" ON "refresh_token_families" ("expires_at");
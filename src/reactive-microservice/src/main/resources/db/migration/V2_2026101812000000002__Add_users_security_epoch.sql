@@ -0,0 +1,2 @@
+-- Bumped whenever previously issued tokens of the user must stop working (lock, disable, password or role change)
+ALTER TABLE "users" ADD COLUMN IF NOT EXISTS security_epoch int DEFAULT 0 NOT NULL;
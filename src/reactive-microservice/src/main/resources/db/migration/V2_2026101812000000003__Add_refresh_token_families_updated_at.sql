@@ -0,0 +1,4 @@
+-- Lets each instance pick up the families other instances issued, rotated or revoked since its last resync
+ALTER TABLE "refresh_token_families" ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP DEFAULT now() NOT NULL;
+
+CREATE INDEX IF NOT EXISTS "refresh_token_families_updated_at_idx" ON "refresh_token_families" ("updated_at");
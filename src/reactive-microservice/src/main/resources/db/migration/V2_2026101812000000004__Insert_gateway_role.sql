@@ -0,0 +1,4 @@
+-- Held by gateways and services allowed to call /auth/introspect
+INSERT INTO "roles" ("id", "name", "description")
+SELECT uuid_generate_v4(), 'ROLE_GATEWAY', 'Represents a trusted gateway or service that introspects access tokens on behalf of its callers.'
+WHERE NOT EXISTS (SELECT 1 FROM "roles" WHERE "name" = 'ROLE_GATEWAY');
@@ -0,0 +1,22 @@
+-- Tombstones of deleted users, kept until every access token they were issued has expired, so each
+-- instance's security-epoch resync learns of a deletion made elsewhere and refuses those tokens
+CREATE TABLE IF NOT EXISTS "deleted_users" (
+    user_id UUID PRIMARY KEY,
+    deleted_at TIMESTAMP DEFAULT now() NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS "deleted_users_deleted_at_idx" ON "deleted_users" ("deleted_at");
+
+CREATE OR REPLACE FUNCTION record_deleted_user() RETURNS TRIGGER AS
+$$
+BEGIN
+    INSERT INTO "deleted_users" (user_id) VALUES (OLD.id) ON CONFLICT (user_id) DO UPDATE SET deleted_at = now();
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS "users_record_deleted" ON "users";
+CREATE TRIGGER "users_record_deleted"
+    AFTER DELETE ON "users"
+    FOR EACH ROW
+EXECUTE FUNCTION record_deleted_user();
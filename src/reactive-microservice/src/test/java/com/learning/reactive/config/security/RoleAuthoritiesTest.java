@@ -0,0 +1,32 @@
+package com.learning.reactive.config.security;
+
+import com.learning.reactive.data.model.RoleEnum;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoleAuthoritiesTest {
+
+    @Test
+    void roundTripsRoleNamesThroughMask() {
+        int mask = RoleAuthorities.mask(List.of("ROLE_ADMIN", "ROLE_USER", "ROLE_UNKNOWN"));
+
+        assertThat(mask).isEqualTo(RoleEnum.ROLE_USER.bit() | RoleEnum.ROLE_ADMIN.bit());
+        assertThat(RoleAuthorities.names(mask)).containsExactly("ROLE_USER", "ROLE_ADMIN");
+        assertThat(RoleAuthorities.authorities(mask)).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_USER", "ROLE_ADMIN");
+        assertThat(RoleAuthorities.has(mask, RoleEnum.ROLE_ADMIN)).isTrue();
+        assertThat(RoleAuthorities.has(mask, RoleEnum.ROLE_SALES)).isFalse();
+    }
+
+    @Test
+    void sharesOneAuthorityListPerCombination() {
+        int mask = RoleEnum.ROLE_SALES.bit() | RoleEnum.ROLE_OPERATIONS.bit();
+
+        assertThat(RoleAuthorities.authorities(mask)).isSameAs(RoleAuthorities.authorities(mask));
+        assertThat(RoleAuthorities.authorities(0)).isEmpty();
+    }
+}
@@ -0,0 +1,56 @@
+package com.learning.reactive.config.security;
+
+import com.learning.reactive.config.security.RouteClassifier.RouteAccess;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteClassifierTest {
+
+    private final RouteClassifier routeClassifier = new RouteClassifier();
+
+    @Test
+    void matchesPrefixPatternsOnSegmentBoundaries() {
+        assertThat(routeClassifier.classify("/auth")).isEqualTo(RouteAccess.PUBLIC);
+        assertThat(routeClassifier.classify("/auth/login")).isEqualTo(RouteAccess.PUBLIC);
+        assertThat(routeClassifier.classify("/.well-known/jwks.json")).isEqualTo(RouteAccess.PUBLIC);
+        assertThat(routeClassifier.classify("/authx")).isEqualTo(RouteAccess.AUTHENTICATED);
+    }
+
+    @Test
+    void classifiesAdminAndRemainingRoutes() {
+        assertThat(routeClassifier.classify("/users")).isEqualTo(RouteAccess.ADMIN);
+        assertThat(routeClassifier.classify("/users/3f2b9c1e-8a4d-4c36-9a53-0d5d1f7e8b21")).isEqualTo(RouteAccess.ADMIN);
+        assertThat(routeClassifier.classify("/actuator/metrics")).isEqualTo(RouteAccess.ADMIN);
+        assertThat(routeClassifier.classify("/")).isEqualTo(RouteAccess.AUTHENTICATED);
+        assertThat(routeClassifier.classify("/orders/1")).isEqualTo(RouteAccess.AUTHENTICATED);
+    }
+
+    @Test
+    void matchesTheDecodedPathWithoutMatrixParameters() {
+        assertThat(routeClassifier.classify("/user%73")).isEqualTo(RouteAccess.ADMIN);
+        assertThat(routeClassifier.classify("/%75sers/3f2b9c1e-8a4d-4c36-9a53-0d5d1f7e8b21")).isEqualTo(RouteAccess.ADMIN);
+        assertThat(routeClassifier.classify("/users;jsessionid=1")).isEqualTo(RouteAccess.ADMIN);
+        assertThat(routeClassifier.classify("/users;x=1/bulk")).isEqualTo(RouteAccess.ADMIN);
+        assertThat(routeClassifier.classify("/auth/introspect;x=1")).isEqualTo(RouteAccess.GATEWAY);
+        assertThat(routeClassifier.classify("/auth/%69ntrospect")).isEqualTo(RouteAccess.GATEWAY);
+        assertThat(routeClassifier.classify("/act%75ator/metrics")).isEqualTo(RouteAccess.ADMIN);
+        assertThat(routeClassifier.classify("/usersx;a=b")).isEqualTo(RouteAccess.AUTHENTICATED);
+    }
+
+    @Test
+    void firstDeclaredPatternWins() {
+        // permit-all patterns were declared before the admin ones, so /auth/** covers /auth/register
+        assertThat(routeClassifier.classify("/auth/register")).isEqualTo(RouteAccess.PUBLIC);
+        // gateway patterns are declared before /auth/**, so introspection stays closed
+        assertThat(routeClassifier.classify("/auth/introspect")).isEqualTo(RouteAccess.GATEWAY);
+        assertThat(new RouteClassifier(new String[]{"/users/**"}, new String[]{"/users/**"}).classify("/users/1"))
+                .isEqualTo(RouteAccess.PUBLIC);
+        assertThat(new RouteClassifier(new String[]{"/docs/index.html"}, new String[]{"/docs/**"}).classify("/docs/index.html"))
+                .isEqualTo(RouteAccess.PUBLIC);
+        assertThat(new RouteClassifier(new String[]{"/docs/**"}, new String[]{"/docs/index.html"}).classify("/docs/index.html"))
+                .isEqualTo(RouteAccess.PUBLIC);
+        assertThat(new RouteClassifier(new String[]{"/docs/index.html"}, new String[]{"/docs/**"}).classify("/docs/other"))
+                .isEqualTo(RouteAccess.ADMIN);
+    }
+}
@@ -0,0 +1,129 @@
+package com.learning.reactive.service;
+
+import com.learning.reactive.data.dto.UserWithRoles;
+import com.learning.reactive.data.mapper.UserMapper;
+import com.learning.reactive.data.model.User;
+import com.learning.reactive.data.repository.RoleRepository;
+import com.learning.reactive.data.repository.UserRepository;
+import com.learning.reactive.data.repository.UserRoleRepository;
+import com.learning.reactive.data.validator.AuthValidator;
+import com.learning.reactive.props.LoginAttemptProperties;
+import com.learning.reactive.props.PaginationProperties;
+import com.learning.reactive.props.PasswordProperties;
+import com.learning.reactive.props.RateLimitProperties;
+import com.learning.reactive.props.TokenProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Every repository call is one SQL statement, so the mocks count the statements a login issues.
+ */
+class AuthServiceLoginTest {
+
+    private static final String USERNAME = "alice";
+    private static final String PASSWORD = "Password123";
+
+    private UserRepository userRepository;
+    private RoleRepository roleRepository;
+    private UserRoleRepository userRoleRepository;
+    private DatabaseClient databaseClient;
+    private AuthService authService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        roleRepository = mock(RoleRepository.class);
+        userRoleRepository = mock(UserRoleRepository.class);
+        databaseClient = mock(DatabaseClient.class);
+
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername(USERNAME);
+        user.setPassword(passwordEncoder.encode(PASSWORD));
+
+        TokenProperties tokenProperties = TokenFixtures.tokenProperties();
+
+        RoleService roleService = new RoleService(roleRepository);
+        PasswordHashingService passwordHashingService =
+                new PasswordHashingService(passwordEncoder, new PasswordProperties(), new SimpleMeterRegistry());
+        UserService userService = new UserService(userRepository, roleService, Mappers.getMapper(UserMapper.class),
+                new PaginationProperties(), passwordHashingService, Mono::empty, new SecurityEpochService(databaseClient, tokenProperties),
+                new AuthValidator(userRepository));
+        JwtService jwtService = new JwtService(userService, tokenProperties,
+                new JwtKeyRing(tokenProperties), new RefreshTokenStore(databaseClient, tokenProperties));
+
+        LoginAttemptService loginAttemptService =
+                new LoginAttemptService(databaseClient, new LoginAttemptProperties());
+
+        RateLimitProperties rateLimitProperties = new RateLimitProperties();
+        rateLimitProperties.setEnabled(false); // lockout must be reached before the username limit
+
+        UserDetailsRepositoryReactiveAuthenticationManager authenticationManager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(
+                        new ReactiveUserDetailsServiceImpl(userService, loginAttemptService));
+        authenticationManager.setPasswordEncoder(passwordEncoder);
+        authenticationManager.setScheduler(Schedulers.immediate());
+
+        authService = new AuthService(authenticationManager, roleService, new UserRoleService(userRoleRepository),
+                userService, passwordHashingService, new AuthValidator(userRepository), jwtService,
+                mock(TransactionalOperator.class), loginAttemptService,
+                new RateLimitService(rateLimitProperties, new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void loginIssuesSingleStatement() {
+        when(userRepository.findByUsernameWithRoles(USERNAME))
+                .thenReturn(Mono.just(new UserWithRoles(user, List.of("ROLE_USER", "ROLE_ADMIN"))));
+
+        StepVerifier.create(authService.authenticate(USERNAME, PASSWORD))
+                .assertNext(response -> {
+                    assertThat(response.userId()).isEqualTo(user.getId().toString());
+                    assertThat(response.token()).isNotBlank();
+                    assertThat(response.refreshToken()).isNotBlank();
+                })
+                .verifyComplete();
+
+        verify(userRepository, times(1)).findByUsernameWithRoles(USERNAME);
+        verifyNoMoreInteractions(userRepository);
+        verifyNoInteractions(roleRepository, userRoleRepository);
+    }
+
+    @Test
+    void repeatedFailuresLockWithoutWrites() {
+        when(userRepository.findByUsernameWithRoles(USERNAME))
+                .thenReturn(Mono.just(new UserWithRoles(user, List.of("ROLE_USER"))));
+
+        for (int i = 0; i < new LoginAttemptProperties().getMaxFailedAttempts(); i++) {
+            StepVerifier.create(authService.authenticate(USERNAME, "wrong-password"))
+                    .verifyError(BadCredentialsException.class);
+        }
+        StepVerifier.create(authService.authenticate(USERNAME, PASSWORD))
+                .verifyError(LockedException.class);
+
+        verifyNoInteractions(databaseClient);
+    }
+}
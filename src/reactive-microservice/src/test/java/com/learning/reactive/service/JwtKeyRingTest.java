@@ -0,0 +1,111 @@
+package com.learning.reactive.service;
+
+import com.learning.reactive.props.TokenProperties;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class JwtKeyRingTest {
+
+    private static final String NEXT_SECRET = "Q3b8Zk1mP0xR7tV2wY5aC9dF4gH6jL8nS1uE3iO5qT7yW0zX2cB4vN6mK8lJ0hG2";
+
+    @TempDir
+    Path directory;
+
+    private Path keyFile;
+    private TokenProperties tokenProperties;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        keyFile = Files.createFile(directory.resolve("token-keys.properties"));
+        tokenProperties = TokenFixtures.tokenProperties();
+        tokenProperties.setKeyFile(keyFile.toString());
+    }
+
+    @Test
+    void reloadPicksUpKeysAddedToTheKeyFile() throws IOException {
+        JwtKeyRing keyRing = new JwtKeyRing(tokenProperties);
+        String before = mint(keyRing);
+
+        Files.writeString(keyFile, "activeKeyId=next\nkeys.next=" + NEXT_SECRET + "\n");
+        keyRing.reload();
+        String after = mint(keyRing);
+
+        assertThat(keyRing.activeKeyId()).isEqualTo("next");
+        assertThat(keyRing.keyIds()).containsExactlyInAnyOrder("default", "next");
+        assertThat(keyRing.parser().parseSignedClaims(after).getHeader().getKeyId()).isEqualTo("next");
+        assertThat(keyRing.parser().parseSignedClaims(before).getPayload().getSubject()).isEqualTo("ring-user");
+    }
+
+    @Test
+    void reloadKeepsTheEphemeralKeyPair() {
+        tokenProperties.setAlgorithm(TokenProperties.Algorithm.ES256);
+        tokenProperties.setActiveKeyId("ephemeral");
+        JwtKeyRing keyRing = new JwtKeyRing(tokenProperties);
+        String before = mint(keyRing);
+
+        keyRing.reload();
+
+        assertThat(keyRing.parser().parseSignedClaims(before).getPayload().getSubject()).isEqualTo("ring-user");
+    }
+
+    @Test
+    void failedReloadKeepsTheCurrentRing() throws IOException {
+        JwtKeyRing keyRing = new JwtKeyRing(tokenProperties);
+        String before = mint(keyRing);
+
+        Files.writeString(keyFile, "activeKeyId=missing\n");
+
+        assertThatThrownBy(keyRing::reload).isInstanceOf(IllegalArgumentException.class);
+        assertThat(keyRing.activeKeyId()).isEqualTo("default");
+        assertThat(keyRing.parser().parseSignedClaims(before).getPayload().getSubject()).isEqualTo("ring-user");
+    }
+
+    @Test
+    void rejectsDuplicateKeyIds() throws IOException {
+        Files.writeString(keyFile, "keys.default=" + NEXT_SECRET + "\n");
+
+        assertThatThrownBy(() -> new JwtKeyRing(tokenProperties))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'default'");
+    }
+
+    @Test
+    void publishesTheCurveOfEachEdDsaKey() throws GeneralSecurityException {
+        tokenProperties.setKeyFile(null);
+        tokenProperties.getKeyPairs().put("ed25519", publicKeyPair("Ed25519"));
+        tokenProperties.getKeyPairs().put("ed448", publicKeyPair("Ed448"));
+
+        Map<String, Object> jwks = new JwtKeyRing(tokenProperties).jwks();
+
+        assertThat((List<?>) jwks.get("keys")).extracting(
+                        jwk -> ((Map<?, ?>) jwk).get("crv"),
+                        jwk -> Base64.getUrlDecoder().decode((String) ((Map<?, ?>) jwk).get("x")).length)
+                .containsExactly(tuple("Ed25519", 32), tuple("Ed448", 57));
+    }
+
+    private static TokenProperties.KeyPair publicKeyPair(String algorithm) throws GeneralSecurityException {
+        TokenProperties.KeyPair keyPair = new TokenProperties.KeyPair();
+        keyPair.setPublicKey(Base64.getEncoder().encodeToString(
+                KeyPairGenerator.getInstance(algorithm).generateKeyPair().getPublic().getEncoded()));
+        return keyPair;
+    }
+
+    private static String mint(JwtKeyRing keyRing) {
+        return keyRing.sign(Jwts.builder().subject("ring-user")).compact();
+    }
+}
@@ -0,0 +1,45 @@
+package com.learning.reactive.service;
+
+import com.learning.reactive.config.security.RoleAuthorities;
+import com.learning.reactive.data.dto.TokenPrincipal;
+import com.learning.reactive.data.dto.TokenSubject;
+import com.learning.reactive.props.TokenProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtServiceClaimProfileTest {
+
+    private static final TokenSubject SUBJECT = TokenFixtures.subject("claims-user");
+
+    @Test
+    void compactTokenIsSmallerAndDecodesToTheSamePrincipal() {
+        String standard = jwtService(TokenProperties.ClaimProfile.STANDARD).generateAccessToken(SUBJECT);
+        String compact = jwtService(TokenProperties.ClaimProfile.COMPACT).generateAccessToken(SUBJECT);
+
+        assertThat(compact.length()).isLessThan(standard.length());
+        assertDecodesToSubject(jwtService(TokenProperties.ClaimProfile.STANDARD), compact);
+    }
+
+    @Test
+    void compactProfileStillAcceptsStandardTokens() {
+        String standard = jwtService(TokenProperties.ClaimProfile.STANDARD).generateAccessToken(SUBJECT);
+
+        assertDecodesToSubject(jwtService(TokenProperties.ClaimProfile.COMPACT), standard);
+    }
+
+    private static void assertDecodesToSubject(JwtService jwtService, String token) {
+        TokenPrincipal principal = jwtService.decode(token).block();
+
+        assertThat(principal).isNotNull();
+        assertThat(principal.subject()).isEqualTo(SUBJECT.username());
+        assertThat(principal.userId()).isEqualTo(SUBJECT.id().toString());
+        assertThat(principal.roleMask()).isEqualTo(RoleAuthorities.mask(SUBJECT.roleNames()));
+    }
+
+    private static JwtService jwtService(TokenProperties.ClaimProfile claimProfile) {
+        TokenProperties tokenProperties = TokenFixtures.tokenProperties();
+        tokenProperties.setClaimProfile(claimProfile);
+        return TokenFixtures.jwtService(tokenProperties);
+    }
+}
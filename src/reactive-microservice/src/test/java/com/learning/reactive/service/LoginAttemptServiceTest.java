@@ -0,0 +1,85 @@
+package com.learning.reactive.service;
+
+import com.learning.reactive.data.model.User;
+import com.learning.reactive.props.LoginAttemptProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LoginAttemptServiceTest {
+
+    private static final String USERNAME = "counted-user";
+
+    private DatabaseClient.GenericExecuteSpec spec;
+    private LoginAttemptService loginAttemptService;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseClient databaseClient = mock(DatabaseClient.class);
+        spec = mock(DatabaseClient.GenericExecuteSpec.class, RETURNS_SELF);
+        when(databaseClient.sql(anyString())).thenReturn(spec);
+        when(spec.then()).thenReturn(Mono.empty());
+        loginAttemptService = new LoginAttemptService(databaseClient, new LoginAttemptProperties());
+    }
+
+    @Test
+    void flushesOnlyTheFailuresCountedSinceTheLastFlush() {
+        loginAttemptService.isLocked(user(2));
+        loginAttemptService.recordFailure(USERNAME);
+
+        StepVerifier.create(loginAttemptService.flush()).verifyComplete();
+        verify(spec).bind("resets", new Boolean[]{false});
+        verify(spec).bind("deltas", new Integer[]{1});
+
+        clearInvocations(spec);
+        loginAttemptService.recordFailure(USERNAME);
+        loginAttemptService.recordFailure(USERNAME);
+
+        StepVerifier.create(loginAttemptService.flush()).verifyComplete();
+        verify(spec).bind("resets", new Boolean[]{false});
+        verify(spec).bind("deltas", new Integer[]{2});
+    }
+
+    @Test
+    void aSuccessfulLoginRestartsTheStoredCount() {
+        loginAttemptService.isLocked(user(2));
+        loginAttemptService.recordFailure(USERNAME);
+        loginAttemptService.recordSuccess(USERNAME);
+
+        StepVerifier.create(loginAttemptService.flush()).verifyComplete();
+        verify(spec).bind("resets", new Boolean[]{true});
+        verify(spec).bind("deltas", new Integer[]{0});
+    }
+
+    @Test
+    void resendsTheSameDeltaAfterAFailedWrite() {
+        when(spec.then()).thenReturn(Mono.error(new IllegalStateException("connection lost")), Mono.empty());
+        loginAttemptService.isLocked(user(0));
+        loginAttemptService.recordFailure(USERNAME);
+
+        StepVerifier.create(loginAttemptService.flush()).verifyComplete();
+        clearInvocations(spec);
+
+        StepVerifier.create(loginAttemptService.flush()).verifyComplete();
+        verify(spec).bind("deltas", new Integer[]{1});
+    }
+
+    private static User user(int failedAttempts) {
+        User user = new User();
+        user.setUsername(USERNAME);
+        user.setFailedAttempts(failedAttempts);
+        user.setLastFailedAttempt(failedAttempts > 0 ? LocalDateTime.now().minusSeconds(10) : null);
+        return user;
+    }
+}
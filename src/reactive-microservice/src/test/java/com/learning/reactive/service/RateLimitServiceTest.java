@@ -0,0 +1,54 @@
+package com.learning.reactive.service;
+
+import com.learning.reactive.props.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitServiceTest {
+
+    private RateLimitService rateLimitService;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setTrustedProxies(List.of("10.0.0.0/8", "192.168.1.5"));
+        rateLimitService = new RateLimitService(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void ignoresForwardedForFromAnUntrustedConnection() throws Exception {
+        String client = rateLimitService.resolveClientAddress(
+                InetAddress.getByName("203.0.113.7"), List.of("198.51.100.1"));
+
+        assertThat(client).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void takesTheRightmostUntrustedHopBehindTrustedProxies() throws Exception {
+        String client = rateLimitService.resolveClientAddress(
+                InetAddress.getByName("10.1.2.3"), List.of("6.6.6.6, 198.51.100.1", "192.168.1.5"));
+
+        assertThat(client).isEqualTo("198.51.100.1");
+    }
+
+    @Test
+    void fallsBackToTheProxyWithoutForwardedFor() throws Exception {
+        String client = rateLimitService.resolveClientAddress(InetAddress.getByName("10.1.2.3"), List.of());
+
+        assertThat(client).isEqualTo("10.1.2.3");
+    }
+
+    @Test
+    void treatsHostNamesAsUntrustedHops() throws Exception {
+        String client = rateLimitService.resolveClientAddress(
+                InetAddress.getByName("10.1.2.3"), List.of("198.51.100.1, proxy.internal"));
+
+        assertThat(client).isEqualTo("proxy.internal");
+    }
+}
@@ -0,0 +1,104 @@
+package com.learning.reactive.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(1_000 * SECOND);
+
+    @Test
+    void admitsABurstOfCapacityThenReportsTheWait() {
+        RateLimiter<String> limiter = new RateLimiter<>(3, 1, 10, clock::get);
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isEqualTo(SECOND);
+
+        clock.addAndGet(SECOND / 4);
+        assertThat(limiter.tryAcquire("a")).isEqualTo(SECOND * 3 / 4);
+    }
+
+    @Test
+    void refillsOneRequestPerEmissionInterval() {
+        RateLimiter<String> limiter = new RateLimiter<>(2, 2, 10, clock::get);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("a");
+
+        clock.addAndGet(SECOND / 2);
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isEqualTo(SECOND / 2);
+
+        clock.addAndGet(10 * SECOND);
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+    }
+
+    @Test
+    void rejectedRequestsDoNotConsumeCredit() {
+        RateLimiter<String> limiter = new RateLimiter<>(1, 1, 10, clock::get);
+        limiter.tryAcquire("a");
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("a");
+        }
+
+        clock.addAndGet(SECOND);
+        assertThat(limiter.tryAcquire("a")).isZero();
+    }
+
+    @Test
+    void keysHaveIndependentBuckets() {
+        RateLimiter<String> limiter = new RateLimiter<>(1, 1, 10, clock::get);
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+        assertThat(limiter.tryAcquire("b")).isZero();
+    }
+
+    @Test
+    void evictIdleDropsOnlyRefilledBuckets() {
+        RateLimiter<String> limiter = new RateLimiter<>(1, 1, 10, clock::get);
+        limiter.tryAcquire("a");
+        clock.addAndGet(SECOND / 2);
+        limiter.tryAcquire("b");
+
+        clock.addAndGet(SECOND / 2);
+        limiter.evictIdle();
+
+        assertThat(limiter.size()).isEqualTo(1);
+        assertThat(limiter.tryAcquire("b")).isPositive();
+    }
+
+    @Test
+    void aFullLimiterEvictsTheBucketsClosestToFullInsteadOfSharingOne() {
+        RateLimiter<String> limiter = new RateLimiter<>(1, 1, 10, clock::get);
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("key-" + i);
+            clock.addAndGet(SECOND / 100);
+        }
+
+        assertThat(limiter.tryAcquire("new")).isZero();
+        assertThat(limiter.tryAcquire("other")).isZero();
+
+        assertThat(limiter.size()).isLessThanOrEqualTo(10);
+        assertThat(limiter.tryAcquire("new")).isPositive();
+        assertThat(limiter.tryAcquire("key-9")).isPositive();
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThatThrownBy(() -> new RateLimiter<String>(0, 1, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RateLimiter<String>(1, 0, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
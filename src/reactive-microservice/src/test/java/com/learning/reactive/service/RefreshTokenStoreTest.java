@@ -0,0 +1,178 @@
+package com.learning.reactive.service;
+
+import com.learning.reactive.props.TokenProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.FetchSpec;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenStoreTest {
+
+    private DatabaseClient databaseClient;
+    private DatabaseClient.GenericExecuteSpec rotateSpec;
+    private DatabaseClient.GenericExecuteSpec insertSpec;
+    private DatabaseClient.GenericExecuteSpec revokeSpec;
+    private RefreshTokenStore store;
+
+    @BeforeEach
+    void setUp() {
+        TokenProperties tokenProperties = TokenFixtures.tokenProperties();
+        tokenProperties.getRefreshStore().setMaxFamiliesPerUser(2);
+        databaseClient = mock(DatabaseClient.class);
+        statement("WHERE NOT revoked AND expires_at > :now", returning(Flux.empty()));
+        statement("FROM refresh_token_families WHERE id = :id", returning(Flux.empty()));
+        rotateSpec = statement("SET current_token_id = :next", updating(Mono.just(1L)));
+        insertSpec = statement("ON CONFLICT (id) DO NOTHING", updating(Mono.just(1L)));
+        revokeSpec = statement("SET revoked = true", updating(Mono.just(1L)));
+        store = new RefreshTokenStore(databaseClient, tokenProperties);
+    }
+
+    @Test
+    void rotatesAFamilyIssuedHereAfterInsertingIt() {
+        RefreshTokenStore.Grant issued = store.issue("rotating-user");
+
+        StepVerifier.create(store.redeem(issued.familyId(), issued.tokenId()))
+                .assertNext(rotated -> {
+                    assertThat(rotated.familyId()).isEqualTo(issued.familyId());
+                    assertThat(rotated.tokenId()).isNotEqualTo(issued.tokenId());
+                })
+                .verifyComplete();
+
+        verify(insertSpec).bind("tokenId", issued.tokenId());
+        verify(rotateSpec).bind("current", issued.tokenId());
+    }
+
+    @Test
+    void rotatesAFamilyIssuedElsewhereWithoutInsertingIt() {
+        UUID familyId = UUID.randomUUID();
+        UUID tokenId = UUID.randomUUID();
+        store.merge(persisted(familyId, tokenId, 60_000, false));
+
+        StepVerifier.create(store.redeem(familyId, tokenId))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(databaseClient, never()).sql(contains("ON CONFLICT (id) DO NOTHING"));
+    }
+
+    @Test
+    void aTokenTheTableNoLongerHoldsRevokesTheFamily() {
+        UUID familyId = UUID.randomUUID();
+        UUID staleTokenId = UUID.randomUUID();
+        store.merge(persisted(familyId, staleTokenId, 60_000, false));
+        rotates(Mono.just(0L)); // rotated by another instance since
+        finds(persisted(familyId, UUID.randomUUID(), 120_000, false));
+
+        StepVerifier.create(store.redeem(familyId, staleTokenId)).verifyComplete();
+        verify(revokeSpec).bind("id", familyId);
+
+        // refused from memory from now on
+        StepVerifier.create(store.redeem(familyId, staleTokenId)).verifyComplete();
+        verify(databaseClient, times(1)).sql(contains("SET current_token_id = :next"));
+    }
+
+    @Test
+    void refusesUnknownOrExpiredFamiliesWithoutRevoking() {
+        UUID unknown = UUID.randomUUID();
+        UUID expired = UUID.randomUUID();
+        rotates(Mono.just(0L));
+
+        StepVerifier.create(store.redeem(unknown, unknown)).verifyComplete();
+        finds(persisted(expired, UUID.randomUUID(), -1_000, false));
+        StepVerifier.create(store.redeem(expired, expired)).verifyComplete();
+
+        verify(databaseClient, never()).sql(contains("SET revoked = true"));
+    }
+
+    @Test
+    void refusesTheTokenWhenTheTableIsUnreachable() {
+        RefreshTokenStore.Grant issued = store.issue("offline-user");
+        rotates(Mono.error(new IllegalStateException("connection refused")));
+
+        StepVerifier.create(store.redeem(issued.familyId(), issued.tokenId())).verifyComplete();
+    }
+
+    @Test
+    void aLoginBeyondThePerUserLimitRevokesTheOldestFamily() throws InterruptedException {
+        RefreshTokenStore.Grant first = store.issue("busy-user");
+        TimeUnit.MILLISECONDS.sleep(2);
+        RefreshTokenStore.Grant second = store.issue("busy-user");
+        TimeUnit.MILLISECONDS.sleep(2);
+        RefreshTokenStore.Grant third = store.issue("busy-user");
+
+        StepVerifier.create(store.redeem(first.familyId(), first.tokenId())).verifyComplete();
+        StepVerifier.create(store.redeem(second.familyId(), second.tokenId())).expectNextCount(1).verifyComplete();
+        StepVerifier.create(store.redeem(third.familyId(), third.tokenId())).expectNextCount(1).verifyComplete();
+        verify(rotateSpec, never()).bind("current", first.tokenId());
+    }
+
+    @Test
+    void aRevocationByAnotherInstanceSticks() {
+        UUID familyId = UUID.randomUUID();
+        UUID tokenId = UUID.randomUUID();
+        store.merge(persisted(familyId, tokenId, 60_000, false));
+        store.merge(persisted(familyId, tokenId, 60_000, true));
+        store.merge(persisted(familyId, tokenId, 120_000, false));
+
+        StepVerifier.create(store.redeem(familyId, tokenId)).verifyComplete();
+        verify(databaseClient, never()).sql(contains("SET current_token_id = :next"));
+    }
+
+    private void rotates(Mono<Long> rowsUpdated) {
+        rotateSpec = statement("SET current_token_id = :next", updating(rowsUpdated));
+    }
+
+    private void finds(RefreshTokenStore.PersistedFamily row) {
+        statement("FROM refresh_token_families WHERE id = :id", returning(Flux.just(row)));
+    }
+
+    private DatabaseClient.GenericExecuteSpec statement(String sqlFragment, DatabaseClient.GenericExecuteSpec spec) {
+        when(databaseClient.sql(contains(sqlFragment))).thenReturn(spec);
+        return spec;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static DatabaseClient.GenericExecuteSpec returning(Flux<RefreshTokenStore.PersistedFamily> rows) {
+        DatabaseClient.GenericExecuteSpec spec = mock(DatabaseClient.GenericExecuteSpec.class, RETURNS_SELF);
+        RowsFetchSpec<RefreshTokenStore.PersistedFamily> fetchSpec = mock(RowsFetchSpec.class);
+        when(fetchSpec.all()).thenReturn(rows);
+        when(fetchSpec.one()).thenReturn(rows.singleOrEmpty());
+        when(spec.map(any(Function.class))).thenReturn((RowsFetchSpec) fetchSpec);
+        return spec;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DatabaseClient.GenericExecuteSpec updating(Mono<Long> rowsUpdated) {
+        DatabaseClient.GenericExecuteSpec spec = mock(DatabaseClient.GenericExecuteSpec.class, RETURNS_SELF);
+        FetchSpec<Map<String, Object>> fetchSpec = mock(FetchSpec.class);
+        when(fetchSpec.rowsUpdated()).thenReturn(rowsUpdated);
+        when(spec.fetch()).thenReturn(fetchSpec);
+        when(spec.then()).thenReturn(rowsUpdated.then());
+        return spec;
+    }
+
+    private static RefreshTokenStore.PersistedFamily persisted(UUID familyId, UUID tokenId, long expiresInMillis,
+                                                               boolean revoked) {
+        return new RefreshTokenStore.PersistedFamily(familyId, "remote-user", tokenId,
+                System.currentTimeMillis() + expiresInMillis, revoked);
+    }
+}
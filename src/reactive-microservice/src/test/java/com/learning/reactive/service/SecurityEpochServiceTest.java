@@ -0,0 +1,57 @@
+package com.learning.reactive.service;
+
+import com.learning.reactive.data.dto.TokenPrincipal;
+import com.learning.reactive.props.TokenProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class SecurityEpochServiceTest {
+
+    private final SecurityEpochService securityEpochService = new SecurityEpochService(mock(DatabaseClient.class), new TokenProperties());
+
+    @Test
+    void rejectsTokensMintedBeforeTheCurrentEpoch() {
+        UUID userId = UUID.randomUUID();
+
+        assertThat(securityEpochService.isCurrent(principal(userId, 0))).isTrue();
+
+        securityEpochService.advance(userId, 2);
+
+        assertThat(securityEpochService.isCurrent(principal(userId, 0))).isFalse();
+        assertThat(securityEpochService.isCurrent(principal(userId, 1))).isFalse();
+        assertThat(securityEpochService.isCurrent(principal(userId, 2))).isTrue();
+        assertThat(securityEpochService.isCurrent(principal(UUID.randomUUID(), 0))).isTrue();
+    }
+
+    @Test
+    void neverMovesBackwards() {
+        UUID userId = UUID.randomUUID();
+
+        securityEpochService.advance(userId, 3);
+        securityEpochService.advance(userId, 1); // a resync racing a newer bump
+
+        assertThat(securityEpochService.isCurrent(principal(userId, 2))).isFalse();
+    }
+
+    @Test
+    void refusesEveryTokenOfADeletedUser() {
+        UUID userId = UUID.randomUUID();
+        securityEpochService.advance(userId, 2);
+
+        securityEpochService.revoke(userId);
+        securityEpochService.advance(userId, 2); // a resync that read the row before the delete
+
+        assertThat(securityEpochService.isCurrent(principal(userId, 2))).isFalse();
+        assertThat(securityEpochService.isCurrent(principal(userId, 1000))).isFalse();
+    }
+
+    private static TokenPrincipal principal(UUID userId, int securityEpoch) {
+        return new TokenPrincipal("epoch-user", userId.toString(), 0, securityEpoch, Instant.now().plusSeconds(900));
+    }
+}
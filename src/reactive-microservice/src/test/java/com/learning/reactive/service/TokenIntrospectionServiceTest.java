@@ -0,0 +1,89 @@
+package com.learning.reactive.service;
+
+import com.learning.reactive.common.exception.BusinessException;
+import com.learning.reactive.data.dto.TokenIntrospection;
+import com.learning.reactive.data.dto.TokenSubject;
+import com.learning.reactive.props.TokenProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.test.StepVerifier;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class TokenIntrospectionServiceTest {
+
+    private static final TokenSubject SUBJECT = TokenFixtures.subject("gateway-user");
+
+    private TokenProperties tokenProperties;
+    private JwtService jwtService;
+    private SecurityEpochService securityEpochService;
+    private TokenIntrospectionService introspectionService;
+
+    @BeforeEach
+    void setUp() {
+        tokenProperties = TokenFixtures.tokenProperties();
+        jwtService = TokenFixtures.jwtService(tokenProperties);
+        securityEpochService = new SecurityEpochService(mock(DatabaseClient.class), tokenProperties);
+        introspectionService = new TokenIntrospectionService(jwtService,
+                new VerifiedTokenCache(tokenProperties, new SimpleMeterRegistry()), securityEpochService, tokenProperties);
+    }
+
+    @Test
+    void answersEveryTokenInRequestOrder() {
+        String token = jwtService.generateAccessToken(SUBJECT);
+
+        StepVerifier.create(introspectionService.introspect(List.of(token, "not-a-jwt", token)))
+                .assertNext(results -> {
+                    assertThat(results).extracting(TokenIntrospection::active).containsExactly(true, false, true);
+                    TokenIntrospection active = results.get(0);
+                    assertThat(active.sub()).isEqualTo(SUBJECT.username());
+                    assertThat(active.uid()).isEqualTo(SUBJECT.id().toString());
+                    assertThat(active.roles()).containsExactly("ROLE_USER", "ROLE_ADMIN");
+                    assertThat(active.cacheTtlSeconds()).isEqualTo(tokenProperties.getIntrospection().getMaxCacheSeconds());
+                    assertThat(results.get(1).sub()).isNull();
+                    assertThat(results.get(1).cacheTtlSeconds()).isEqualTo(tokenProperties.getIntrospection().getMaxCacheSeconds());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void reportsTokensBehindTheSecurityEpochAsInactive() {
+        String token = jwtService.generateAccessToken(SUBJECT);
+        introspectionService.introspect(List.of(token)).block(); // cached as verified
+
+        securityEpochService.advance(SUBJECT.id(), 1);
+
+        StepVerifier.create(introspectionService.introspect(List.of(token)))
+                .assertNext(results -> {
+                    assertThat(results.get(0).active()).isFalse();
+                    assertThat(results.get(0).cacheTtlSeconds())
+                            .isEqualTo(tokenProperties.getIntrospection().getInactiveCacheSeconds());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void answersNullTokensAsInactive() {
+        String token = jwtService.generateAccessToken(SUBJECT);
+
+        StepVerifier.create(introspectionService.introspect(Arrays.asList(null, token, null, "")))
+                .assertNext(results -> assertThat(results).extracting(TokenIntrospection::active)
+                        .containsExactly(false, true, false, false))
+                .verifyComplete();
+    }
+
+    @Test
+    void rejectsBatchesAboveTheLimit() {
+        tokenProperties.getIntrospection().setMaxBatchSize(2);
+
+        StepVerifier.create(introspectionService.introspect(Collections.nCopies(3, "token")))
+                .verifyError(BusinessException.class);
+    }
+}
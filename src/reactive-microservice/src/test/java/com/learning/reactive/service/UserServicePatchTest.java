@@ -0,0 +1,174 @@
+package com.learning.reactive.service;
+
+import com.learning.reactive.common.exception.BusinessException;
+import com.learning.reactive.common.exception.enums.ExceptionType;
+import com.learning.reactive.data.dto.UserPatchRequest;
+import com.learning.reactive.data.dto.UserSummary;
+import com.learning.reactive.data.dto.UserSummaryWithRoles;
+import com.learning.reactive.data.mapper.UserMapper;
+import com.learning.reactive.data.model.AccountStatusEnum;
+import com.learning.reactive.data.repository.RoleRepository;
+import com.learning.reactive.data.repository.UserRepository;
+import com.learning.reactive.data.validator.AuthValidator;
+import com.learning.reactive.props.PaginationProperties;
+import com.learning.reactive.props.PasswordProperties;
+import com.learning.reactive.props.TokenProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class UserServicePatchTest {
+
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    private UserRepository userRepository;
+    private BCryptPasswordEncoder passwordEncoder;
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        passwordEncoder = new BCryptPasswordEncoder(4);
+        PasswordHashingService passwordHashingService =
+                new PasswordHashingService(passwordEncoder, new PasswordProperties(), new SimpleMeterRegistry());
+        userService = new UserService(userRepository, new RoleService(mock(RoleRepository.class)),
+                Mappers.getMapper(UserMapper.class), new PaginationProperties(), passwordHashingService,
+                () -> Mono.just("admin"), new SecurityEpochService(mock(DatabaseClient.class), new TokenProperties()),
+                new AuthValidator(userRepository));
+    }
+
+    @Test
+    void writesOnlyTheFieldsSent() {
+        when(userRepository.updateIfVersionMatches(any(), anyLong(), anyMap(), anyBoolean(), anyString()))
+                .thenReturn(Mono.just(updated(4L, 0)));
+        UserPatchRequest patch = patch(3L);
+        patch.setFirstName("Alice");
+        patch.setMobile("9876543210");
+
+        StepVerifier.create(userService.patch(USER_ID, patch))
+                .assertNext(response -> assertThat(response.getVersion()).isEqualTo(4L))
+                .verifyComplete();
+
+        ArgumentCaptor<Map<String, Object>> changes = changesCaptor();
+        verify(userRepository).updateIfVersionMatches(eq(USER_ID), eq(3L), changes.capture(), eq(false), eq("admin"));
+        assertThat(changes.getValue()).containsOnly(Map.entry("first_name", "Alice"), Map.entry("mobile", "9876543210"));
+    }
+
+    @Test
+    void hashesANewPasswordAndCutsOffIssuedTokens() {
+        when(userRepository.updateIfVersionMatches(any(), anyLong(), anyMap(), anyBoolean(), anyString()))
+                .thenReturn(Mono.just(updated(4L, 1)));
+        UserPatchRequest patch = patch(3L);
+        patch.setPassword("NewPassword1");
+
+        StepVerifier.create(userService.patch(USER_ID, patch))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        ArgumentCaptor<Map<String, Object>> changes = changesCaptor();
+        verify(userRepository).updateIfVersionMatches(eq(USER_ID), eq(3L), changes.capture(), eq(true), eq("admin"));
+        assertThat(changes.getValue()).containsKeys("password", "last_password_change");
+        assertThat(passwordEncoder.matches("NewPassword1", (String) changes.getValue().get("password"))).isTrue();
+    }
+
+    @Test
+    void rejectsAStaleVersionWithConflict() {
+        when(userRepository.updateIfVersionMatches(any(), anyLong(), anyMap(), anyBoolean(), anyString()))
+                .thenReturn(Mono.empty());
+        when(userRepository.existsById(USER_ID)).thenReturn(Mono.just(true));
+        UserPatchRequest patch = patch(2L);
+        patch.setFirstName("Alice");
+
+        StepVerifier.create(userService.patch(USER_ID, patch))
+                .expectErrorSatisfies(e -> assertThat(e).isInstanceOfSatisfying(BusinessException.class,
+                        be -> assertThat(be.getExceptionType()).isEqualTo(ExceptionType.CONFLICT)))
+                .verify();
+    }
+
+    @Test
+    void completesEmptyForAnUnknownUser() {
+        when(userRepository.updateIfVersionMatches(any(), anyLong(), anyMap(), anyBoolean(), anyString()))
+                .thenReturn(Mono.empty());
+        when(userRepository.existsById(USER_ID)).thenReturn(Mono.just(false));
+        UserPatchRequest patch = patch(2L);
+        patch.setFirstName("Alice");
+
+        StepVerifier.create(userService.patch(USER_ID, patch))
+                .verifyComplete();
+    }
+
+    @Test
+    void mapsATakenUsernameToDuplicateValue() {
+        when(userRepository.updateIfVersionMatches(any(), anyLong(), anyMap(), anyBoolean(), anyString()))
+                .thenReturn(Mono.error(new DuplicateKeyException("users_username_key")));
+        UserPatchRequest patch = patch(3L);
+        patch.setUsername("bob");
+
+        StepVerifier.create(userService.patch(USER_ID, patch))
+                .expectErrorSatisfies(e -> assertThat(e).isInstanceOfSatisfying(BusinessException.class,
+                        be -> assertThat(be.getExceptionType()).isEqualTo(ExceptionType.DUPLICATE_VALUE)))
+                .verify();
+    }
+
+    @Test
+    void rejectsAWeakPasswordBeforeHashing() {
+        UserPatchRequest patch = patch(3L);
+        patch.setPassword("alllowercase");
+
+        StepVerifier.create(userService.patch(USER_ID, patch))
+                .expectErrorSatisfies(e -> assertThat(e).isInstanceOfSatisfying(BusinessException.class,
+                        be -> assertThat(be.getValidationErrors()).singleElement()
+                                .satisfies(error -> assertThat(error.getFieldName()).isEqualTo("password"))))
+                .verify();
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void rejectsAnEmptyPatch() {
+        StepVerifier.create(userService.patch(USER_ID, patch(3L)))
+                .expectErrorSatisfies(e -> assertThat(e).isInstanceOfSatisfying(BusinessException.class,
+                        be -> assertThat(be.getExceptionType()).isEqualTo(ExceptionType.INVALID_INPUT)))
+                .verify();
+        verifyNoInteractions(userRepository);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<Map<String, Object>> changesCaptor() {
+        return ArgumentCaptor.forClass(Map.class);
+    }
+
+    private static UserPatchRequest patch(long version) {
+        UserPatchRequest patch = new UserPatchRequest();
+        patch.setVersion(version);
+        return patch;
+    }
+
+    private static UserSummaryWithRoles updated(long version, int securityEpoch) {
+        UserSummary summary = new UserSummary(USER_ID, "Alice", null, "alice", "alice@example.com", "9876543210",
+                AccountStatusEnum.ACTIVE, version, null, null, null, "admin");
+        return new UserSummaryWithRoles(summary, List.of("ROLE_USER"), securityEpoch);
+    }
+}
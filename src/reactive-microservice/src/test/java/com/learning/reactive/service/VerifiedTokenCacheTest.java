@@ -0,0 +1,82 @@
+package com.learning.reactive.service;
+
+import com.learning.reactive.data.dto.TokenPrincipal;
+import com.learning.reactive.props.TokenProperties;
+import com.learning.reactive.service.VerifiedTokenCache.VerifiedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private static final long NOW = Instant.parse("2026-01-01T00:00:00Z").toEpochMilli();
+
+    private TokenProperties tokenProperties;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        tokenProperties = new TokenProperties();
+        cache = new VerifiedTokenCache(tokenProperties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void returnsTheCachedEntryUntilTheTokenExpires() {
+        VerifiedToken verifiedToken = verifiedToken(NOW + 60_000);
+        cache.put("token", verifiedToken, NOW);
+
+        assertThat(cache.get("token", NOW)).isSameAs(verifiedToken);
+        assertThat(cache.get("other-token", NOW)).isNull();
+        assertThat(cache.get("token", NOW + 60_000)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void neverStoresAnExpiredToken() {
+        cache.put("token", verifiedToken(NOW), NOW);
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void makesRoomWhenFull() {
+        tokenProperties.getCache().setMaxEntries(2);
+        cache.put("expiring", verifiedToken(NOW + 1_000), NOW);
+        cache.put("live", verifiedToken(NOW + 60_000), NOW);
+
+        // the first insert into a full cache sweeps the expired entry
+        cache.put("first", verifiedToken(NOW + 60_000), NOW + 1_000);
+        assertThat(cache.get("expiring", NOW + 1_000)).isNull();
+        assertThat(cache.get("first", NOW + 1_000)).isNotNull();
+        assertThat(cache.size()).isEqualTo(2);
+
+        // inside the purge interval a single live entry is evicted instead of sweeping again
+        cache.put("second", verifiedToken(NOW + 60_000), NOW + 1_001);
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("second", NOW + 1_001)).isNotNull();
+    }
+
+    @Test
+    void evictsTheEntryClosestToExpiry() {
+        tokenProperties.getCache().setMaxEntries(3);
+        cache.put("long-lived", verifiedToken(NOW + 600_000), NOW);
+        cache.put("short-lived", verifiedToken(NOW + 10_000), NOW);
+        cache.put("medium-lived", verifiedToken(NOW + 60_000), NOW);
+
+        cache.put("new", verifiedToken(NOW + 600_000), NOW);
+
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.get("short-lived", NOW)).isNull();
+        assertThat(cache.get("long-lived", NOW)).isNotNull();
+        assertThat(cache.get("medium-lived", NOW)).isNotNull();
+        assertThat(cache.get("new", NOW)).isNotNull();
+    }
+
+    private static VerifiedToken verifiedToken(long expiresAtMillis) {
+        return VerifiedToken.of(new TokenPrincipal("cached-user", "user-id", 0, 0, Instant.ofEpochMilli(expiresAtMillis)));
+    }
+}